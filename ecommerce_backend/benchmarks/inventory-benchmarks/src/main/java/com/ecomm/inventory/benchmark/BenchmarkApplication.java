@@ -0,0 +1,127 @@
+package com.ecomm.inventory.benchmark;
+
+import com.ecomm.inventory.cache.InventoryCacheInvalidationPublisher;
+import com.ecomm.inventory.config.RedisConfig;
+import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.repository.InventoryRepository;
+import com.ecomm.inventory.metrics.InventoryMetrics;
+import com.ecomm.inventory.service.HotSkuReservationEngine;
+import com.ecomm.inventory.service.InventoryStockCache;
+import com.ecomm.inventory.service.InventoryUpdatePublisher;
+import com.ecomm.inventory.service.StockLevelPublisher;
+import com.ecomm.inventory.service.impl.InventoryServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slim context around the real InventoryServiceImpl: JPA on an in-memory H2 database,
+ * everything that would leave the process (Redis, Kafka, WebSocket) replaced by no-op stand-ins.
+ */
+@SpringBootConfiguration
+@ImportAutoConfiguration({
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        TransactionAutoConfiguration.class,
+        JdbcTemplateAutoConfiguration.class,
+        JacksonAutoConfiguration.class
+})
+@EntityScan("com.ecomm.inventory.domain")
+@EnableJpaRepositories("com.ecomm.inventory.repository")
+@EnableScheduling
+@Import({
+        InventoryServiceImpl.class,
+        HotSkuReservationEngine.class,
+        InventoryStockCache.class,
+        InventoryUpdatePublisher.class,
+        InventoryCacheInvalidationPublisher.class,
+        InventoryMetrics.class
+})
+public class BenchmarkApplication {
+
+    static ConfigurableApplicationContext start(Map<String, Object> properties) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "spring.cloud.config.enabled", "false",
+                        "spring.cloud.config.import-check.enabled", "false",
+                        "eureka.client.enabled", "false",
+                        "spring.datasource.url", "jdbc:h2:mem:inventory-bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "spring.jpa.hibernate.ddl-auto", "create-drop",
+                        "spring.jpa.open-in-view", "false",
+                        "logging.level.root", "WARN"))
+                .properties(properties)
+                .run();
+    }
+
+    // Local map instead of the two-tier Redis cache, so the numbers are about the database path
+    @Bean
+    public CacheManager cacheManager() {
+        return new ConcurrentMapCacheManager("inventory");
+    }
+
+    // Meters are recorded as in production, just never exported
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public SimpMessagingTemplate simpMessagingTemplate() {
+        return new SimpMessagingTemplate((message, timeout) -> true);
+    }
+
+    // Never connected: only the batch lookup path would use it
+    @Bean
+    public StringRedisTemplate stringRedisTemplate() {
+        return new StringRedisTemplate(new LettuceConnectionFactory());
+    }
+
+    @Bean
+    public Jackson2JsonRedisSerializer<InventoryResponse> inventoryResponseSerializer() {
+        return new RedisConfig().inventoryResponseSerializer();
+    }
+
+    // Stock levels would go to the unconnected KafkaTemplate below
+    @Bean
+    public StockLevelPublisher stockLevelPublisher(KafkaTemplate<String, Object> kafkaTemplate, InventoryRepository repo) {
+        return new StockLevelPublisher(kafkaTemplate, repo) {
+            @Override
+            public void publish(List<InventoryResponse> levels) {
+            }
+        };
+    }
+
+    // Never sends: cache invalidation only happens through the two-tier cache, which is not used here
+    @Bean
+    public KafkaTemplate<String, Object> sagaKafkaTemplate() {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecomm.inventory.benchmark;
+
+import com.ecomm.events.order.OrderItemPayload;
+import com.ecomm.inventory.domain.InventoryItem;
+import com.ecomm.inventory.dto.request.InventoryAdjustmentRequest;
+import com.ecomm.inventory.repository.InventoryRepository;
+import com.ecomm.inventory.service.HotSkuReservationEngine;
+import com.ecomm.inventory.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput and latency percentiles of the saga reservation path and of stock adjustments.
+ * <p>
+ * Build and run:
+ * <pre>
+ *   mvn -Pbenchmarks -pl benchmarks/inventory-benchmarks -am package
+ *   java -jar benchmarks/inventory-benchmarks/target/inventory-benchmarks.jar -t 16 -p skew=1.2 -p linesPerOrder=3
+ * </pre>
+ * {@code -t} sets the thread count; {@code -p} overrides any {@link Param} below.
+ * Throughput mode reports ops/s, sample mode reports p50/p90/p99/p99.9 latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class InventoryReservationBenchmark {
+
+    // Never runs out during a run: the benchmark measures contention, not rejections
+    private static final long INITIAL_STOCK = 1_000_000_000L;
+
+    @Param({"1000"})
+    public int skuCount;
+
+    // Zipf exponent of SKU popularity: 0 uniform, 1 catalogue, 2 flash sale
+    @Param({"0", "1.2", "2"})
+    public double skew;
+
+    @Param({"1", "3"})
+    public int linesPerOrder;
+
+    // Routes the hottest SKUs through the in-memory hot-SKU engine
+    @Param({"false"})
+    public boolean hotSkuEngine;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private ZipfSampler sampler;
+    private List<String> skus;
+    private final AtomicLong orderIds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        skus = IntStream.range(0, skuCount).mapToObj(i -> "BENCH-" + i).toList();
+        context = BenchmarkApplication.start(Map.of(
+                "inventory.hot-sku.enabled", String.valueOf(hotSkuEngine),
+                "inventory.hot-sku.skus", String.join(",", skus.subList(0, Math.min(10, skuCount)))));
+
+        InventoryRepository repo = context.getBean(InventoryRepository.class);
+        repo.saveAll(skus.stream()
+                .map(sku -> InventoryItem.builder().sku(sku).available(INITIAL_STOCK).reserved(0L).build())
+                .toList());
+        if (hotSkuEngine) {
+            // Configured SKUs are promoted on startup, which ran before the rows existed
+            skus.subList(0, Math.min(10, skuCount)).forEach(context.getBean(HotSkuReservationEngine.class)::promote);
+        }
+
+        inventoryService = context.getBean(InventoryService.class);
+        sampler = new ZipfSampler(skuCount, skew);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean reserveForOrder() {
+        return inventoryService.reserveForOrder(orderIds.incrementAndGet(), nextOrder());
+    }
+
+    // Reserve + compensation, as for a saga whose payment fails
+    @Benchmark
+    public void reserveAndRelease(Blackhole bh) {
+        long orderId = orderIds.incrementAndGet();
+        bh.consume(inventoryService.reserveForOrder(orderId, nextOrder()));
+        inventoryService.releaseForOrder(orderId);
+    }
+
+    @Benchmark
+    public Object adjustStock() {
+        return inventoryService.adjustStock(
+                new InventoryAdjustmentRequest(skus.get(sampler.next()), 1L), "benchmark");
+    }
+
+    private List<OrderItemPayload> nextOrder() {
+        List<OrderItemPayload> lines = new ArrayList<>(linesPerOrder);
+        for (int i = 0; i < linesPerOrder; i++) {
+            String sku = skus.get(sampler.next());
+            lines.add(new OrderItemPayload(sku, sku, 1, 1.0, sku));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,181 @@
+package com.ecomm.inventory.benchmark;
+
+import com.ecomm.inventory.config.RedisInventoryConfig;
+import com.ecomm.inventory.service.RedisInventoryKeys;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reserve / release / confirm round trip of the Redis inventory scripts against a real Redis.
+ * <p>
+ * Run against a throwaway local instance:
+ * <pre>
+ *   docker run --rm -p 6379:6379 redis:7
+ *   mvn -Pbenchmarks -pl benchmarks/inventory-benchmarks -am package
+ *   java -cp benchmarks/inventory-benchmarks/target/inventory-benchmarks.jar \
+ *        com.ecomm.inventory.benchmark.RedisScriptRoundTrip localhost 6379
+ * </pre>
+ * Keys live under a fresh hash tag and are deleted afterwards. Exits non-zero on the first mismatch.
+ */
+public final class RedisScriptRoundTrip {
+
+    private static final String SKU_A = "RT-A";
+    private static final String SKU_B = "RT-B";
+
+    private final StringRedisTemplate redis;
+    private final RedisInventoryKeys keys;
+    private final RedisScript<Long> reserve;
+    private final RedisScript<Long> release;
+    private final RedisScript<Long> confirm;
+    private final RedisScript<Long> seed;
+    private final RedisScript<Long> trim;
+
+    private RedisScriptRoundTrip(StringRedisTemplate redis, RedisInventoryKeys keys) {
+        RedisInventoryConfig scripts = new RedisInventoryConfig();
+        this.redis = redis;
+        this.keys = keys;
+        this.reserve = scripts.reserveStockScript();
+        this.release = scripts.releaseStockScript();
+        this.confirm = scripts.confirmStockScript();
+        this.seed = scripts.seedStockScript();
+        this.trim = scripts.trimDeltasScript();
+    }
+
+    public static void main(String[] args) {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+
+        LettuceConnectionFactory connections = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connections.afterPropertiesSet();
+        try {
+            StringRedisTemplate redis = new StringRedisTemplate(connections);
+            RedisInventoryKeys keys = new RedisInventoryKeys("inv-roundtrip-" + System.nanoTime());
+            new RedisScriptRoundTrip(redis, keys).run();
+            System.out.println("Redis inventory scripts: round trip OK");
+        } catch (IllegalStateException e) {
+            System.err.println("Redis inventory scripts: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            connections.destroy();
+        }
+    }
+
+    private void run() {
+        try {
+            check("seed A", 1L, redis.execute(seed, List.of(keys.stock(SKU_A)), "10", "0"));
+            check("seed B", 1L, redis.execute(seed, List.of(keys.stock(SKU_B)), "5", "0"));
+            check("seed A again", 0L, redis.execute(seed, List.of(keys.stock(SKU_A)), "99", "0"));
+
+            // Reserve, redeliver, release, release again: stock ends where it started
+            check("reserve 1", 1L, reserve(1L, Map.of(SKU_A, 3L, SKU_B, 2L)));
+            checkStock(SKU_A, 7, 3);
+            checkStock(SKU_B, 3, 2);
+            check("reserve 1 redelivered", 1L, reserve(1L, Map.of(SKU_A, 3L, SKU_B, 2L)));
+            checkStock(SKU_A, 7, 3);
+            check("release 1", 2L, release(1L, "RELEASED"));
+            checkStock(SKU_A, 10, 0);
+            checkStock(SKU_B, 5, 0);
+            check("release 1 again", 0L, release(1L, "RELEASED"));
+            check("hold 1 status", "RELEASED", redis.opsForHash().get(keys.hold(1L), "_status"));
+
+            // Reserve, confirm: a later release gives nothing back
+            check("reserve 2", 1L, reserve(2L, Map.of(SKU_A, 4L)));
+            check("confirm 2", 1L, confirm(2L));
+            check("confirm 2 again", 3L, confirm(2L));
+            check("release 2 after confirm", 0L, release(2L, "RELEASED"));
+            checkStock(SKU_A, 6, 4);
+            check("expiry entries", 0L, redis.opsForZSet().size(keys.holdExpiry()));
+
+            // Payment after expiry: the hold is taken again while the stock is there
+            check("reserve 4", 1L, reserve(4L, Map.of(SKU_B, 2L)));
+            check("expire 4", 1L, release(4L, "EXPIRED"));
+            check("confirm 4 after expiry", 2L, confirm(4L));
+            checkStock(SKU_B, 3, 2);
+            check("confirm 1 after release", 0L, confirm(1L));
+
+            // All or nothing
+            check("reserve 3 over stock", 0L, reserve(3L, Map.of(SKU_A, 1L, SKU_B, 6L)));
+            checkStock(SKU_A, 6, 4);
+            checkStock(SKU_B, 5, 0);
+
+            // The stream carries exactly the net change, and trimming keeps only the applied tip
+            long available = 0;
+            long reserved = 0;
+            List<MapRecord<String, Object, Object>> entries = redis.opsForStream().range(keys.deltas(), Range.unbounded());
+            for (MapRecord<String, Object, Object> entry : Objects.requireNonNull(entries)) {
+                if (SKU_A.equals(entry.getValue().get("sku"))) {
+                    available += Long.parseLong((String) entry.getValue().get("available"));
+                    reserved += Long.parseLong((String) entry.getValue().get("reserved"));
+                }
+            }
+            check("deltas of " + SKU_A, List.of(-4L, 4L), List.of(available, reserved));
+            check("delta count", 8, entries.size());
+            redis.execute(trim, List.of(keys.deltas()), entries.get(entries.size() - 1).getId().getValue());
+            check("deltas after trim", 1L, redis.opsForStream().size(keys.deltas()));
+        } finally {
+            redis.delete(List.of(keys.stock(SKU_A), keys.stock(SKU_B), keys.hold(1L), keys.hold(2L),
+                    keys.hold(3L), keys.hold(4L), keys.holdExpiry(), keys.deltas()));
+        }
+    }
+
+    // Same argument layout as RedisInventoryService
+    private Long reserve(long orderId, Map<String, Long> quantities) {
+        List<String> scriptKeys = new ArrayList<>(List.of(keys.hold(orderId), keys.holdExpiry(), keys.deltas()));
+        List<String> args = new ArrayList<>(List.of(String.valueOf(orderId),
+                String.valueOf(System.currentTimeMillis() + 60_000)));
+        quantities.forEach((sku, qty) -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+            args.add(String.valueOf(qty));
+        });
+        return redis.execute(reserve, scriptKeys, args.toArray());
+    }
+
+    private Long release(long orderId, String finalStatus) {
+        List<String> scriptKeys = new ArrayList<>(List.of(keys.hold(orderId), keys.holdExpiry(), keys.deltas()));
+        List<String> args = new ArrayList<>(List.of(String.valueOf(orderId), finalStatus, "60"));
+        holdLines(orderId).forEach(sku -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+        });
+        return redis.execute(release, scriptKeys, args.toArray());
+    }
+
+    private Long confirm(long orderId) {
+        List<String> scriptKeys = new ArrayList<>(List.of(keys.hold(orderId), keys.holdExpiry(), keys.deltas()));
+        List<String> args = new ArrayList<>(List.of(String.valueOf(orderId), "60"));
+        holdLines(orderId).forEach(sku -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+        });
+        return redis.execute(confirm, scriptKeys, args.toArray());
+    }
+
+    private List<String> holdLines(long orderId) {
+        return redis.opsForHash().keys(keys.hold(orderId)).stream()
+                .map(String::valueOf)
+                .filter(field -> !field.startsWith("_"))
+                .sorted()
+                .toList();
+    }
+
+    private void checkStock(String sku, long available, long reserved) {
+        List<Object> values = redis.opsForHash().multiGet(keys.stock(sku), List.of("available", "reserved"));
+        check("stock of " + sku, List.of(String.valueOf(available), String.valueOf(reserved)), values);
+    }
+
+    private static void check(String what, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            throw new IllegalStateException(what + ": expected " + expected + " but was " + actual);
+        }
+    }
+}
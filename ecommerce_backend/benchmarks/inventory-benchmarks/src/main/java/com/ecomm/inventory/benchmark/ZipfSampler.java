@@ -0,0 +1,30 @@
+package com.ecomm.inventory.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks SKU indexes with Zipf skew: index 0 is the hottest.
+ * Exponent 0 is uniform; around 1 is typical catalogue traffic; above 1.5 is a flash sale.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int size, double exponent) {
+        cdf = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int next() {
+        int idx = Arrays.binarySearch(cdf, ThreadLocalRandom.current().nextDouble());
+        return Math.min(idx >= 0 ? idx : -idx - 1, cdf.length - 1);
+    }
+}
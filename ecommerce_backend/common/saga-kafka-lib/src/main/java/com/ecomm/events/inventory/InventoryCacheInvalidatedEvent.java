@@ -0,0 +1,13 @@
+package com.ecomm.events.inventory;
+
+import java.util.List;
+
+/**
+ * Broadcast by an inventory-service node whenever it evicts SKUs from the "inventory" cache,
+ * so every other node drops them from its in-process copy.
+ * Topic: inventory.cache.invalidation.v1
+ */
+public record InventoryCacheInvalidatedEvent(
+        String originNodeId,
+        List<String> skus
+) {}
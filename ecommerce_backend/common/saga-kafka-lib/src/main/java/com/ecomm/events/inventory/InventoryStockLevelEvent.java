@@ -0,0 +1,13 @@
+package com.ecomm.events.inventory;
+
+/**
+ * Latest stock level of one SKU, published by inventory-service after its counters change.
+ * Topic: inventory.stock.levels.v1 (compacted, key = sku), so a new consumer reading from the
+ * beginning gets the current level of every SKU.
+ */
+public record InventoryStockLevelEvent(
+        String sku,
+        long available,
+        long reserved,
+        long updatedAt
+) {}
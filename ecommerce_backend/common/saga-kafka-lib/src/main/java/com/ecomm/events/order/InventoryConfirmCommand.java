@@ -0,0 +1,10 @@
+package com.ecomm.events.order;
+
+/**
+ * Sent to inventory-service once payment is authorized, so the order's holds stop expiring.
+ * Topic: order.saga.commands.inventory.confirm
+ */
+public record InventoryConfirmCommand(
+        String sagaId,
+        Long orderId
+) {}
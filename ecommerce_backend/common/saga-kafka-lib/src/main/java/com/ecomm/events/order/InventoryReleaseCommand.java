@@ -0,0 +1,11 @@
+package com.ecomm.events.order;
+
+/**
+ * Compensation command to inventory-service: give back every hold of the order.
+ * Topic: order.saga.commands.inventory.release
+ */
+public record InventoryReleaseCommand(
+        String sagaId,
+        Long orderId,
+        String reason
+) {}
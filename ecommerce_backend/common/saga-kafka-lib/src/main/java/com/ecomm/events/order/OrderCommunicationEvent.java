@@ -3,11 +3,13 @@ package com.ecomm.events.order;
 import com.ecomm.events.order.domain.RecommendedProductSummary;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.List;
 
 @Data
 @Builder
+@Jacksonized
 public class OrderCommunicationEvent {
 
     private String eventId;
@@ -21,6 +23,7 @@ public class OrderCommunicationEvent {
 
     @Data
     @Builder
+    @Jacksonized
     public static class OrderSummary {
         private double totalAmount;
         private List<String> itemNames;
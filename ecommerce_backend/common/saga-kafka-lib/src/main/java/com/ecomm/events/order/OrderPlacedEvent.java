@@ -2,6 +2,7 @@ package com.ecomm.events.order;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -9,6 +10,7 @@ import java.util.List;
 
 @Data
 @Builder
+@Jacksonized
 public class OrderPlacedEvent {
 
     private String eventId;
@@ -22,6 +24,7 @@ public class OrderPlacedEvent {
 
     @Data
     @Builder
+    @Jacksonized
     public static class OrderItemPayload {
         private Long productId;
         private String productName;
@@ -1,5 +1,6 @@
 package com.ecomm.events.order.domain;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import lombok.*;
 
@@ -9,6 +10,7 @@ import lombok.*;
 @AllArgsConstructor
 @Embeddable
 public class CustomerInfo {
+    @Column(name = "customer_id")
     private String customerId;
     private String name;
     private String email;
@@ -3,6 +3,7 @@ package com.ecomm.events.order.domain;
 import com.ecomm.events.payment.PaymentMethod;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +13,13 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "orders")
+// Keyset listing: newest first, optionally narrowed to a customer or a status
+@Table(name = "orders",
+        indexes = {
+                @Index(name = "idx_orders_created", columnList = "created_at, id"),
+                @Index(name = "idx_orders_customer_created", columnList = "customer_id, created_at, id"),
+                @Index(name = "idx_orders_status_created", columnList = "status, created_at, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,8 +50,10 @@ public class Order {
     private ShippingAddress shippingAddress;
 
     /**
-     * One-to-many items
+     * One-to-many items. Loaded for up to 100 orders per query when a list of orders
+     * is mapped, instead of one query per order.
      */
+    @BatchSize(size = 100)
     @OneToMany(
             mappedBy = "order",
             cascade = CascadeType.ALL,
@@ -65,7 +74,7 @@ public class Order {
     private OrderStatus status;
 
     @CreationTimestamp
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @UpdateTimestamp
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items",
+        indexes = @Index(name = "idx_order_items_order", columnList = "order_id"))
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,11 +2,13 @@ package com.ecomm.events.order.domain;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@Jacksonized
 public class RecommendedProductSummary {
     private Long id;
     private String sku;
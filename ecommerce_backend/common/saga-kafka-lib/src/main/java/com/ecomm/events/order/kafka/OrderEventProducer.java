@@ -22,8 +22,8 @@ public class OrderEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    private static final String ORDER_PLACED_TOPIC = "order.placed.v1";
-    private static final String USER_EMAIL_OUTBOX_TOPIC = "user.email.outbox.v1";
+    public static final String ORDER_PLACED_TOPIC = "order.placed.v1";
+    public static final String USER_EMAIL_OUTBOX_TOPIC = "user.email.outbox.v1";
 
     private String eventId() {
         return UUID.randomUUID().toString();
@@ -32,7 +32,19 @@ public class OrderEventProducer {
     public void sendOrderPlacedEvent(Order order, List<RecommendedProductSummary> recs) {
 
         // 1) Publish ORDER_PLACED event
-        OrderPlacedEvent placedEvent = OrderPlacedEvent.builder()
+        OrderPlacedEvent placedEvent = placedEvent(order);
+        kafkaTemplate.send(ORDER_PLACED_TOPIC, order.getId().toString(), placedEvent);
+        log.info("EVENT → ORDER_PLACED {}", placedEvent);
+
+        // 2) Publish Email Communication Event
+        OrderCommunicationEvent commEvent = communicationEvent(order, recs);
+        kafkaTemplate.send(USER_EMAIL_OUTBOX_TOPIC, order.getUserId().toString(), commEvent);
+        log.info("EVENT → USER_EMAIL_OUTBOX {}", commEvent);
+    }
+
+    // Builders on their own, for services that publish through an outbox instead of sending directly
+    public OrderPlacedEvent placedEvent(Order order) {
+        return OrderPlacedEvent.builder()
                 .eventId(eventId())
                 .orderId(order.getId())
                 .userId(order.getUserId())
@@ -43,12 +55,10 @@ public class OrderEventProducer {
                         .map(this::toPayload)
                         .collect(Collectors.toList()))
                 .build();
+    }
 
-        kafkaTemplate.send(ORDER_PLACED_TOPIC, order.getId().toString(), placedEvent);
-        log.info("EVENT → ORDER_PLACED {}", placedEvent);
-
-        // 2) Publish Email Communication Event
-        OrderCommunicationEvent commEvent = OrderCommunicationEvent.builder()
+    public OrderCommunicationEvent communicationEvent(Order order, List<RecommendedProductSummary> recs) {
+        return OrderCommunicationEvent.builder()
                 .eventId(eventId())
                 .orderId(order.getId())
                 .userId(order.getUserId())
@@ -63,9 +73,6 @@ public class OrderEventProducer {
                         .build())
                 .recommendations(recs)
                 .build();
-
-        kafkaTemplate.send(USER_EMAIL_OUTBOX_TOPIC, order.getUserId().toString(), commEvent);
-        log.info("EVENT → USER_EMAIL_OUTBOX {}", commEvent);
     }
 
     private OrderPlacedEvent.OrderItemPayload toPayload(OrderItem item) {
@@ -1,6 +1,7 @@
 package com.ecomm.events.payment;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.math.BigDecimal;
 
@@ -9,6 +10,7 @@ import java.math.BigDecimal;
  */
 @Data
 @Builder
+@Jacksonized
 public class PaymentResultEvent {
 
     private String sagaId;
@@ -6,7 +6,9 @@ import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "order_saga")
+// (status, updated_at): the timeout scan reads only overdue sagas of the waiting statuses
+@Table(name = "order_saga",
+        indexes = @Index(name = "idx_order_saga_status_updated", columnList = "status, updated_at"))
 public class OrderSagaEntity {
 
     @Id
@@ -32,6 +34,10 @@ public class OrderSagaEntity {
     @Column(name = "last_error", length = 500)
     private String lastError;
 
+    // Times the current step's command was resent after a timeout; reset when the step replies
+    @Column(name = "retry_count", nullable = false, columnDefinition = "integer not null default 0")
+    private int retryCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
@@ -108,6 +114,14 @@ public class OrderSagaEntity {
         this.lastError = lastError;
     }
 
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
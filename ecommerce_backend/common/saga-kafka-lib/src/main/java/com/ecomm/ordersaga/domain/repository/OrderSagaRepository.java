@@ -2,6 +2,25 @@ package com.ecomm.ordersaga.domain.repository;
 
 import com.ecomm.ordersaga.domain.OrderSagaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderSagaRepository extends JpaRepository<OrderSagaEntity, String> {
+
+    // Oldest overdue sagas first, off idx_order_saga_status_updated; rows another node is handling are skipped
+    @Query(value = """
+            select * from order_saga
+             where status in (:statuses)
+               and updated_at < :before
+             order by updated_at
+             limit :limit
+             for update skip locked
+            """, nativeQuery = true)
+    List<OrderSagaEntity> lockOverdue(@Param("statuses") Collection<String> statuses,
+                                      @Param("before") OffsetDateTime before,
+                                      @Param("limit") int limit);
 }
@@ -1,7 +1,6 @@
 package com.ecomm.ordersaga.messaging;
 
 import com.ecomm.events.order.OrderSagaStartEvent;
-import com.ecomm.events.order.SagaReplyEvent;
 import com.ecomm.ordersaga.service.OrderSagaServiceKafka;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -26,11 +25,5 @@ public class OrderSagaListeners {
         sagaService.startSaga(event);
     }
 
-    @KafkaListener(
-            topics = "#{T(com.ecomm.saga.kafka.SagaKafkaTopics).ORDER_SAGA_REPLIES}",
-            groupId = "order-saga-orchestrator"
-    )
-    public void onSagaReply(SagaReplyEvent reply) {
-        sagaService.handleReply(reply);
-    }
+    // Saga replies are orchestrated by order-service through SagaReplyDispatcher
 }
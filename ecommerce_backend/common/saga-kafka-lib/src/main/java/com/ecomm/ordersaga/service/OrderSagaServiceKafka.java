@@ -24,6 +24,12 @@ public class OrderSagaServiceKafka {
 
     @Transactional
     public void startSaga(OrderSagaStartEvent event) {
+        // A start seen again (redelivery, or order-service resending it to nudge inventory after a
+        // timeout) must not reset a running saga's status and retry budget
+        if (sagaRepository.existsById(event.sagaId())) {
+            return;
+        }
+
         // 1. Persist initial saga state
         OrderSagaEntity saga = new OrderSagaEntity();
         saga.setSagaId(event.sagaId());
@@ -50,74 +56,5 @@ public class OrderSagaServiceKafka {
         );
     }
 
-    @Transactional
-    public void handleReply(SagaReplyEvent reply) {
-        OrderSagaEntity saga = sagaRepository.findById(reply.sagaId())
-                .orElseThrow(() -> new IllegalStateException("Saga not found: " + reply.sagaId()));
-
-        if (!reply.success()) {
-            saga.setStatus(SagaStatus.COMPENSATING);
-            saga.setLastError(reply.errorMessage());
-            sagaRepository.save(saga);
-            // TODO: send compensation commands (reverse inventory / refund payment)
-            return;
-        }
-
-        switch (reply.step()) {
-            case INVENTORY -> handleInventorySuccess(saga, reply);
-            case PAYMENT   -> handlePaymentSuccess(saga, reply);
-            case SHIPPING  -> handleShippingSuccess(saga, reply);
-        }
-    }
-
-    private void handleInventorySuccess(OrderSagaEntity saga, SagaReplyEvent reply) {
-        saga.setInventoryDone(true);
-        saga.setStatus(SagaStatus.INVENTORY_RESERVED);
-        sagaRepository.save(saga);
-
-        // send payment command
-        PaymentCommand cmd = new PaymentCommand(
-                saga.getSagaId(),
-                saga.getOrderId(),
-                null,                // userId (you can pass from start event later)
-                null                 // amount (can be event.totalAmount())
-        );
-
-        String key = SagaMessageKeys.commandKey(saga.getSagaId(), SagaStep.PAYMENT);
-
-        sagaKafkaTemplate.send(
-                SagaKafkaTopics.ORDER_SAGA_CMD_PAYMENT,
-                key,
-                cmd
-        );
-    }
-
-    private void handlePaymentSuccess(OrderSagaEntity saga, SagaReplyEvent reply) {
-        saga.setPaymentDone(true);
-        saga.setStatus(SagaStatus.PAYMENT_AUTHORIZED);
-        sagaRepository.save(saga);
-
-        ShippingCommand cmd = new ShippingCommand(
-                saga.getSagaId(),
-                saga.getOrderId(),
-                null  // userId (optional)
-        );
-
-        String key = SagaMessageKeys.commandKey(saga.getSagaId(), SagaStep.SHIPPING);
-
-        sagaKafkaTemplate.send(
-                SagaKafkaTopics.ORDER_SAGA_CMD_SHIPPING,
-                key,
-                cmd
-        );
-    }
-
-    private void handleShippingSuccess(OrderSagaEntity saga, SagaReplyEvent reply) {
-        saga.setShippingDone(true);
-        saga.setStatus(SagaStatus.COMPLETED);
-        sagaRepository.save(saga);
-
-        // TODO (optional): send OrderSagaResultEvent to order-service
-        // sagaKafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_RESULT, ..., ...);
-    }
+    // Saga replies are handled by order-service's OrderSagaService (via SagaReplyDispatcher)
 }
@@ -4,25 +4,32 @@ import com.ecomm.events.order.OrderSagaReply;
 import com.ecomm.events.saga.SagaStatus;
 import com.ecomm.events.order.SagaStep;
 import com.ecomm.reco.service.OrderActivityService;
-import com.ecomm.saga.kafka.SagaKafkaTopics;
+import com.ecomm.saga.kafka.reply.SagaReplyHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Set;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class OrderSagaRepliesConsumer {
+public class OrderSagaRepliesConsumer implements SagaReplyHandler<OrderSagaReply> {
 
     private final OrderActivityService orderActivityService;
 
-    @KafkaListener(
-            topics = SagaKafkaTopics.ORDER_SAGA_REPLIES,
-            groupId = "recommender-orders"
-    )
-    public void onSagaReply(@Payload OrderSagaReply reply) {
+    @Override
+    public Set<Class<? extends OrderSagaReply>> replyTypes() {
+        return Set.of(OrderSagaReply.class);
+    }
+
+    @Override
+    public void handle(List<OrderSagaReply> replies) {
+        replies.forEach(this::onSagaReply);
+    }
+
+    private void onSagaReply(OrderSagaReply reply) {
 
         log.info("Recommender saw saga reply: {}", reply);
 
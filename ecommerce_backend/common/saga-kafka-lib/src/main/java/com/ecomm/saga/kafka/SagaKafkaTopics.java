@@ -9,10 +9,18 @@ public final class SagaKafkaTopics {
     // ================================
     public static final String ORDER_SAGA_START          = "order.saga.start.v1";
     public static final String ORDER_SAGA_CMD_INVENTORY  = "order.saga.commands.inventory.v1";
+    public static final String ORDER_SAGA_CMD_INVENTORY_RELEASE = "order.saga.commands.inventory.release.v1";
+    public static final String ORDER_SAGA_CMD_INVENTORY_CONFIRM = "order.saga.commands.inventory.confirm.v1";
     public static final String ORDER_SAGA_CMD_PAYMENT    = "order.saga.commands.payment.v1";
     public static final String ORDER_SAGA_CMD_SHIPPING   = "order.saga.commands.shipping.v1";
     public static final String ORDER_SAGA_REPLIES        = "order.saga.replies.v1";
 
+    // ================================
+    // INVENTORY EVENTS
+    // ================================
+    public static final String INVENTORY_CACHE_INVALIDATION = "inventory.cache.invalidation.v1";
+    public static final String INVENTORY_STOCK_LEVELS       = "inventory.stock.levels.v1";
+
     // ================================
     // USER EVENTS
     // ================================
@@ -30,11 +30,25 @@ public final class SagaMessageKeys {
             throw new IllegalArgumentException("sagaId must not be blank");
         }
 
+        return replyKey(sagaId) + DELIMITER + step.name();
+    }
+
+    /**
+     * Key for messages on order.saga.replies: the saga alone, so every reply of a saga
+     * (whatever the step) lands on the same partition and is consumed in order.
+     *
+     * Format:
+     *   <base64(sagaId)>
+     */
+    public static String replyKey(String sagaId) {
+        Objects.requireNonNull(sagaId, "sagaId must not be null");
+        if (sagaId.isBlank()) {
+            throw new IllegalArgumentException("sagaId must not be blank");
+        }
+
         // Normalize + make key safe for Kafka partitioning
-        String safeSagaId = Base64.getUrlEncoder()
+        return Base64.getUrlEncoder()
                 .withoutPadding()
                 .encodeToString(sagaId.getBytes(StandardCharsets.UTF_8));
-
-        return safeSagaId + DELIMITER + step.name();
     }
 }
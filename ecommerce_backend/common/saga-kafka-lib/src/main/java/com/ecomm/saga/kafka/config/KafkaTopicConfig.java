@@ -51,10 +51,26 @@ public class KafkaTopicConfig {
     // -----------------------------------------------------
     @Bean public NewTopic orderSagaStart()            { return topic(SagaKafkaTopics.ORDER_SAGA_START); }
     @Bean public NewTopic orderSagaInvCmd()           { return topic(SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY); }
+    @Bean public NewTopic orderSagaInvReleaseCmd()    { return topic(SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY_RELEASE); }
+    @Bean public NewTopic orderSagaInvConfirmCmd()    { return topic(SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY_CONFIRM); }
     @Bean public NewTopic orderSagaPayCmd()           { return topic(SagaKafkaTopics.ORDER_SAGA_CMD_PAYMENT); }
     @Bean public NewTopic orderSagaShipCmd()          { return topic(SagaKafkaTopics.ORDER_SAGA_CMD_SHIPPING); }
     @Bean public NewTopic orderSagaReplies()          { return topic(SagaKafkaTopics.ORDER_SAGA_REPLIES); }
 
+    // -----------------------------------------------------
+    // INVENTORY EVENTS
+    // -----------------------------------------------------
+    @Bean public NewTopic inventoryCacheInvalidation() { return topic(SagaKafkaTopics.INVENTORY_CACHE_INVALIDATION); }
+
+    // Compacted: only the latest level per SKU is kept
+    @Bean public NewTopic inventoryStockLevels() {
+        return TopicBuilder.name(SagaKafkaTopics.INVENTORY_STOCK_LEVELS)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
     // -----------------------------------------------------
     // USER EVENTS (Unified both sets)
     // -----------------------------------------------------
@@ -0,0 +1,116 @@
+package com.ecomm.saga.kafka.reply;
+
+import com.ecomm.saga.kafka.SagaKafkaTopics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one consumer of order.saga.replies in an application (saga.replies.dispatcher.enabled=true).
+ * <p>
+ * Routes are resolved once at startup from the {@link SagaReplyHandler} beans: type header → class →
+ * handlers. Per poll, every message of a wanted type is deserialized once and handed, in partition
+ * order, to each handler that asked for it. Messages of other types are skipped unread but counted
+ * ({@code saga.replies.unrouted}, tagged by type) and logged once per type, so a producer whose reply
+ * type nobody registered for shows up instead of disappearing.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "saga.replies.dispatcher.enabled", havingValue = "true")
+public class SagaReplyDispatcher {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Class<?>> typesById = new HashMap<>();
+    private final Map<Class<?>, List<SagaReplyHandler<Object>>> handlersByType = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Set<String> unroutedSeen = ConcurrentHashMap.newKeySet();
+
+    @SuppressWarnings("unchecked")
+    public SagaReplyDispatcher(ObjectMapper objectMapper, List<SagaReplyHandler<?>> handlers,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        for (SagaReplyHandler<?> handler : handlers) {
+            for (Class<?> type : handler.replyTypes()) {
+                typesById.put(type.getName(), type);
+                handlersByType.computeIfAbsent(type, t -> new ArrayList<>()).add((SagaReplyHandler<Object>) handler);
+            }
+        }
+        log.info("Saga reply dispatcher routes: {}", typesById.keySet());
+    }
+
+    @KafkaListener(
+            topics = SagaKafkaTopics.ORDER_SAGA_REPLIES,
+            groupId = "${saga.replies.group-id:order-service-saga}",
+            containerFactory = SagaReplyDispatcherConfig.SAGA_REPLY_FACTORY
+    )
+    public void dispatch(List<ConsumerRecord<String, byte[]>> records) {
+        Map<SagaReplyHandler<Object>, List<Object>> batches = new LinkedHashMap<>();
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            String typeId = typeId(record);
+            Class<?> type = typesById.get(typeId);
+            if (type == null) {
+                unrouted(record, typeId);
+                continue;
+            }
+            Object reply = read(record, type);
+            if (reply == null) {
+                continue;
+            }
+            for (SagaReplyHandler<Object> handler : handlersByType.get(type)) {
+                batches.computeIfAbsent(handler, h -> new ArrayList<>()).add(reply);
+            }
+        }
+
+        batches.forEach(SagaReplyHandler::handle);
+    }
+
+    private void unrouted(ConsumerRecord<String, byte[]> record, String typeId) {
+        String type = typeId == null ? "none" : typeId;
+        if (meterRegistry != null) {
+            meterRegistry.counter("saga.replies.unrouted", "type", type).increment();
+        }
+        if (unroutedSeen.add(type)) {
+            log.warn("Saga reply type {} has no handler, skipping it (first at {}-{}@{}); routes: {}",
+                    type, record.topic(), record.partition(), record.offset(), typesById.keySet());
+        }
+    }
+
+    // Set by the producers' JsonSerializer (class name of the payload)
+    private static String typeId(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private Object read(ConsumerRecord<String, byte[]> record, Class<?> type) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(record.value(), type);
+        } catch (IOException e) {
+            // A poison message must not block the partition
+            log.error("Skipping unreadable saga reply at {}-{}@{} as {}: {}",
+                    record.topic(), record.partition(), record.offset(), type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+}
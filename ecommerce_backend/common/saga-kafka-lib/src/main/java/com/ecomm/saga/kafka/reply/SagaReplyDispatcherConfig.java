@@ -0,0 +1,41 @@
+package com.ecomm.saga.kafka.reply;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.Map;
+
+/**
+ * Batch container for {@link SagaReplyDispatcher}. Values stay raw bytes so the dispatcher
+ * can pick the target type per message from its type header.
+ */
+@Configuration
+@ConditionalOnProperty(name = "saga.replies.dispatcher.enabled", havingValue = "true")
+public class SagaReplyDispatcherConfig {
+
+    public static final String SAGA_REPLY_FACTORY = "sagaReplyDispatcherFactory";
+
+    @Bean(SAGA_REPLY_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> sagaReplyDispatcherFactory(
+            KafkaProperties kafkaProperties,
+            @Value("${saga.replies.concurrency:1}") int concurrency) {
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        return factory;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecomm.saga.kafka.reply;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Receives replies from order.saga.replies through {@link SagaReplyDispatcher}.
+ * <p>
+ * A handler names the reply classes it wants; the dispatcher matches them against the producer's
+ * type header, deserializes each message once and never deserializes types nobody asked for.
+ *
+ * @param <T> common supertype of the reply classes (Object when they share none)
+ */
+public interface SagaReplyHandler<T> {
+
+    Set<Class<? extends T>> replyTypes();
+
+    /**
+     * The matching replies of one poll, in partition order. Replies of a saga share a partition
+     * ({@link com.ecomm.saga.kafka.SagaMessageKeys#replyKey}), so they arrive in the order they were sent.
+     */
+    void handle(List<T> replies);
+}
@@ -0,0 +1,42 @@
+package com.ecomm.inventory.cache;
+
+import com.ecomm.events.inventory.InventoryCacheInvalidatedEvent;
+import com.ecomm.saga.kafka.SagaKafkaTopics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryCacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+    private final InventoryCacheInvalidationPublisher publisher;
+
+    // Own group per instance: every node must see every invalidation. Only new messages matter.
+    // The group id is stable across restarts (same instance id as the discovery registration),
+    // so a restart rejoins its old group instead of leaving one more orphaned group on the broker.
+    @KafkaListener(
+            topics = SagaKafkaTopics.INVENTORY_CACHE_INVALIDATION,
+            groupId = "inventory-cache-${eureka.instance.instance-id:${spring.cloud.client.ip-address:localhost}:${server.port:8080}}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onInvalidation(@Payload InventoryCacheInvalidatedEvent event) {
+        if (publisher.getNodeId().equals(event.originNodeId())) {
+            return;
+        }
+        Cache cache = cacheManager.getCache("inventory");
+        if (cache instanceof TwoTierCache twoTier) {
+            List<String> skus = event.skus() == null ? List.of() : event.skus();
+            twoTier.evictLocal(skus);
+            log.debug("Dropped {} skus from local inventory cache (from node {})", skus.size(), event.originNodeId());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecomm.inventory.cache;
+
+import com.ecomm.events.inventory.InventoryCacheInvalidatedEvent;
+import com.ecomm.saga.kafka.SagaKafkaTopics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class InventoryCacheInvalidationPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    // Identifies this process, so it can skip its own broadcasts
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public InventoryCacheInvalidationPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Tells every other node to drop these SKUs from its L1; an empty list clears it.
+     * Best effort: the L1 TTL bounds staleness if a broadcast is lost.
+     */
+    public void publish(List<String> skus) {
+        try {
+            kafkaTemplate.send(SagaKafkaTopics.INVENTORY_CACHE_INVALIDATION, nodeId,
+                    new InventoryCacheInvalidatedEvent(nodeId, skus));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast inventory cache invalidation for {}: {}", skus, e.getMessage());
+        }
+    }
+}
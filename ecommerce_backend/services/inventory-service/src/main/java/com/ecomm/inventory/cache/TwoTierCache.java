@@ -0,0 +1,132 @@
+package com.ecomm.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Bounded in-process L1 (Caffeine) in front of the shared Redis cache (L2).
+ * <p>
+ * Evictions drop the local L1 entry right away. The shared L2 entry is evicted and the eviction is
+ * broadcast to the other nodes once the surrounding transaction commits (all keys of one transaction
+ * in one message): evicting L2 earlier would let a concurrent read reload the pre-commit row into it.
+ * The local L1 is evicted a second time after commit for the same reason.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final org.springframework.cache.Cache shared;
+    private final InventoryCacheInvalidationPublisher publisher;
+
+    public TwoTierCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache shared,
+                        InventoryCacheInvalidationPublisher publisher) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        ValueWrapper remote = shared.get(key);
+        if (remote == null || remote.get() == null) {
+            return null;
+        }
+        local.put(key, remote.get());
+        return remote.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        T loaded = shared.get(key, valueLoader);
+        if (loaded != null) {
+            local.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        shared.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        invalidateEverywhere(key);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        shared.clear();
+        publisher.publish(List.of());
+    }
+
+    // Invalidations from other nodes: L2 is shared and already evicted by the sender
+    public void evictLocal(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            local.invalidateAll();
+        } else {
+            local.invalidateAll(keys);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invalidateEverywhere(Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            shared.evict(key);
+            publisher.publish(List.of(String.valueOf(key)));
+            return;
+        }
+        Set<Object> keys = (Set<Object>) TransactionSynchronizationManager.getResource(this);
+        if (keys == null) {
+            Set<Object> batch = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TwoTierCache.this);
+                    if (status == STATUS_COMMITTED) {
+                        batch.forEach(shared::evict);
+                        local.invalidateAll(batch);
+                        publisher.publish(batch.stream().map(String::valueOf).toList());
+                    }
+                }
+            });
+            keys = batch;
+        }
+        keys.add(key);
+    }
+}
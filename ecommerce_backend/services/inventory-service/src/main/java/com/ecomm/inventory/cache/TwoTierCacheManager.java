@@ -0,0 +1,53 @@
+package com.ecomm.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the Redis cache manager and adds an in-process L1 to the listed caches.
+ * Other caches are served by Redis alone.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager shared;
+    private final Set<String> twoTierNames;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final InventoryCacheInvalidationPublisher publisher;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager shared, Set<String> twoTierNames, long localMaxSize, Duration localTtl,
+                               InventoryCacheInvalidationPublisher publisher) {
+        this.shared = shared;
+        this.twoTierNames = twoTierNames;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!twoTierNames.contains(name)) {
+            return shared.getCache(name);
+        }
+        return caches.computeIfAbsent(name, n -> {
+            Cache remote = shared.getCache(n);
+            return remote == null ? null : new TwoTierCache(n, Caffeine.newBuilder()
+                    .maximumSize(localMaxSize)
+                    .expireAfterWrite(localTtl)
+                    .build(), remote, publisher);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return shared.getCacheNames();
+    }
+}
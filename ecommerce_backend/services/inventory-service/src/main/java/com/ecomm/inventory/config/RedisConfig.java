@@ -1,5 +1,10 @@
 package com.ecomm.inventory.config;
 
+import com.ecomm.inventory.cache.InventoryCacheInvalidationPublisher;
+import com.ecomm.inventory.cache.TwoTierCacheManager;
+import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -8,8 +13,11 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
@@ -21,14 +29,31 @@ public class RedisConfig {
         return new LettuceConnectionFactory();
     }
 
+    // Plain JSON for the "inventory" cache, so batch lookups can read the same entries with MGET
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory factory) {
+    public Jackson2JsonRedisSerializer<InventoryResponse> inventoryResponseSerializer() {
+        return new Jackson2JsonRedisSerializer<>(new ObjectMapper(), InventoryResponse.class);
+    }
+
+    // Redis (shared, L2) behind a per-node Caffeine L1 for "inventory"; L1 is kept coherent over Kafka
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory factory,
+                                     Jackson2JsonRedisSerializer<InventoryResponse> inventoryResponseSerializer,
+                                     InventoryCacheInvalidationPublisher invalidationPublisher,
+                                     @Value("${inventory.cache.ttl:PT30S}") Duration ttl,
+                                     @Value("${inventory.cache.l1.max-size:10000}") long l1MaxSize,
+                                     @Value("${inventory.cache.l1.ttl:PT10S}") Duration l1Ttl) {
         RedisCacheConfiguration config = RedisCacheConfiguration
                 .defaultCacheConfig()
-                .entryTtl(Duration.ofSeconds(30));   // cache inventory for 30s
+                .entryTtl(ttl);   // cache inventory for 30s by default
 
-        return RedisCacheManager.builder(factory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(factory)
                 .cacheDefaults(config)
+                .withCacheConfiguration("inventory", config.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(inventoryResponseSerializer)))
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(redisCacheManager, Set.of("inventory"), l1MaxSize, l1Ttl, invalidationPublisher);
     }
 }
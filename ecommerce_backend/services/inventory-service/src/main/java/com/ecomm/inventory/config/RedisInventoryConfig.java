@@ -0,0 +1,53 @@
+package com.ecomm.inventory.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Lua scripts of the Redis inventory backend (inventory.backend=redis).
+ * Each script touches several keys atomically; all keys share the {inv} hash tag so they stay in one slot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.backend", havingValue = "redis")
+public class RedisInventoryConfig {
+
+    @Bean
+    public RedisScript<Long> reserveStockScript() {
+        return script("reserve.lua", Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> releaseStockScript() {
+        return script("release.lua", Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> confirmStockScript() {
+        return script("confirm.lua", Long.class);
+    }
+
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RedisScript<List> adjustStockScript() {
+        return script("adjust.lua", List.class);
+    }
+
+    @Bean
+    public RedisScript<Long> seedStockScript() {
+        return script("seed.lua", Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> trimDeltasScript() {
+        return script("trim.lua", Long.class);
+    }
+
+    private static <T> RedisScript<T> script(String name, Class<T> resultType) {
+        return RedisScript.of(new ClassPathResource("scripts/inventory/" + name), resultType);
+    }
+}
@@ -39,6 +39,8 @@ public class SecurityConfig {
                         .requestMatchers("/ws/**").permitAll()
                         // Public read of stock (optional) - or make it authenticated
                         .requestMatchers(HttpMethod.GET, "/api/inventory/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/inventory/batch").permitAll()   // read-only batch lookup
+                        .requestMatchers(HttpMethod.POST, "/api/inventory/allocations/preview").permitAll()   // plan only, reserves nothing
                         // Writes restricted to ADMIN & SELLER
                         .requestMatchers(HttpMethod.POST, "/api/inventory/**").hasAnyRole("ADMIN", "SELLER")
                         .requestMatchers(HttpMethod.PUT, "/api/inventory/**").hasAnyRole("ADMIN", "SELLER")
@@ -0,0 +1,56 @@
+package com.ecomm.inventory.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Ledger entry for one SKU held by one order.
+ * Lets compensation give back exactly what the order reserved.
+ */
+@Entity
+@Table(name = "inventory_reservations",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"order_id", "sku"}),
+        indexes = {
+                @Index(columnList = "order_id, status"),
+                @Index(columnList = "status, expires_at"),  // drives the expiry sweeper
+                @Index(columnList = "pending, sku")         // drives the hot-SKU write-back
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    private Instant releasedAt;
+
+    // Admitted by the in-memory hot-SKU engine and not yet written to inventory_items
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean pending = false;
+}
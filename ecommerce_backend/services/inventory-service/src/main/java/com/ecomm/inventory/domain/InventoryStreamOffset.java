@@ -0,0 +1,29 @@
+package com.ecomm.inventory.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Last Redis stream entry applied to inventory_items.
+ * Updated in the same transaction as the deltas, so each entry is applied exactly once.
+ */
+@Entity
+@Table(name = "inventory_stream_offsets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryStreamOffset {
+
+    @Id
+    @Column(length = 100)
+    private String stream;
+
+    @Column(nullable = false, length = 40)
+    private String lastId;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,61 @@
+package com.ecomm.inventory.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Inbox entry: a saga message this service has already acted on, with its outcome.
+ * Written in the same transaction as the reservation, so a redelivery finds either both or neither.
+ */
+@Entity
+@Table(name = "inventory_saga_inbox",
+        indexes = {
+                @Index(columnList = "processed_at"),
+                // recordRejected looks up an order's starts after a hot-SKU oversell
+                @Index(columnList = "order_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedSagaMessage implements Persistable<String> {
+
+    // e.g. "SAGA_START:<sagaId>"
+    @Id
+    @Column(length = 150)
+    private String messageId;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+
+    // Always INSERT (never merge), so a second delivery hits the primary key instead of overwriting
+    @Transient
+    @Builder.Default
+    private boolean fresh = true;
+
+    @Override
+    public String getId() {
+        return messageId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        fresh = false;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecomm.inventory.domain;
+
+public enum ReservationStatus {
+    HELD,       // stock moved from available to reserved for the order
+    CONFIRMED,  // payment went through, hold no longer expires
+    RELEASED,   // hold returned to available (saga compensation)
+    EXPIRED     // hold returned to available by the expiry sweeper
+}
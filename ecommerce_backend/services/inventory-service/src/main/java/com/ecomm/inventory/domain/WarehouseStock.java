@@ -0,0 +1,36 @@
+package com.ecomm.inventory.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Stock of one SKU at one warehouse. {@link InventoryItem} keeps the total over all locations,
+ * which is what reservations are checked against.
+ */
+@Entity
+@Table(name = "warehouse_stock",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"warehouse_id", "sku"}),
+        indexes = @Index(columnList = "sku"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WarehouseStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(nullable = false)
+    private Long available;
+
+    @Column(nullable = false)
+    private Long reserved;
+}
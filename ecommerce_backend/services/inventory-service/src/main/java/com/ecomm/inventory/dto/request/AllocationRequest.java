@@ -0,0 +1,13 @@
+package com.ecomm.inventory.dto.request;
+
+import com.ecomm.events.order.OrderItemPayload;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record AllocationRequest(
+        @NotEmpty List<OrderItemPayload> items,
+        Double latitude,  // shipping destination; without it only the number of shipments is minimised
+        Double longitude
+) {
+}
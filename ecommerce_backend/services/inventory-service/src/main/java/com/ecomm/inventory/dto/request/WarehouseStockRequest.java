@@ -0,0 +1,20 @@
+package com.ecomm.inventory.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.List;
+
+// On-hand units per SKU at one warehouse, as counted there; replaces the stored value
+public record WarehouseStockRequest(
+        @NotEmpty List<@Valid Line> lines
+) {
+    public record Line(
+            @NotBlank String sku,
+            @NotNull @PositiveOrZero Long onHand
+    ) {
+    }
+}
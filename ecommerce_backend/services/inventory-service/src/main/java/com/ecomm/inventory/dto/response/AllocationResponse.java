@@ -0,0 +1,18 @@
+package com.ecomm.inventory.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+public record AllocationResponse(
+        List<Shipment> shipments,
+        Map<String, Long> unallocated, // units no location can ship, per SKU
+        double totalDistanceKm
+) {
+
+    public record Shipment(
+            String warehouseCode,
+            double distanceKm,
+            Map<String, Long> lines
+    ) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecomm.inventory.dto.response;
+
+import java.util.List;
+
+public record InventoryImportResponse(
+        long linesRead,
+        long applied,
+        long rejected,
+        List<String> rejectedSample // first few rejected lines with the reason
+) {
+}
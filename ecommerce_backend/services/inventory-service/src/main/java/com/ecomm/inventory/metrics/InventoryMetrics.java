@@ -0,0 +1,138 @@
+package com.ecomm.inventory.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hot-path meters of inventory-service, exposed on /actuator/metrics and /actuator/prometheus:
+ * <ul>
+ *   <li>inventory.reservation.latency (timer, percentile histogram) tagged by outcome</li>
+ *   <li>inventory.reservation.rejections (counter) tagged by reason</li>
+ *   <li>inventory.saga.start.latency / inventory.saga.start.duplicates for the Kafka handler</li>
+ *   <li>inventory.allocation.latency (timer) for warehouse allocation</li>
+ *   <li>inventory.sku.update.rate / inventory.sku.contention.rate: per-SKU rates of the top SKUs only</li>
+ * </ul>
+ */
+@Component
+public class InventoryMetrics {
+
+    public static final String RESERVED = "reserved";
+    public static final String REJECTED = "rejected";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> reservationTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final Timer sagaStartTimer;
+    private final Counter sagaStartDuplicates;
+    private final Counter backorders;
+    private final Timer allocationTimer;
+
+    private final SpaceSavingTopK updates;
+    private final SpaceSavingTopK contention;
+    private final MultiGauge updateRate;
+    private final MultiGauge contentionRate;
+    private final int topK;
+    private final long windowMs;
+
+    public InventoryMetrics(MeterRegistry registry,
+                            @Value("${inventory.metrics.top-k:10}") int topK,
+                            @Value("${inventory.metrics.top-k-window-ms:15000}") long windowMs) {
+        this.registry = registry;
+        this.topK = topK;
+        this.windowMs = windowMs;
+        // Extra slots keep the estimate of the top entries tight
+        this.updates = new SpaceSavingTopK(topK * 4);
+        this.contention = new SpaceSavingTopK(topK * 4);
+
+        this.sagaStartTimer = Timer.builder("inventory.saga.start.latency")
+                .description("Saga start handling incl. commit, from Kafka record to reply")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.sagaStartDuplicates = Counter.builder("inventory.saga.start.duplicates")
+                .description("Redelivered saga starts answered from the inbox")
+                .register(registry);
+        this.backorders = Counter.builder("inventory.hot_sku.backorders")
+                .description("Paid orders whose hot-SKU hold waits for stock")
+                .register(registry);
+        this.allocationTimer = Timer.builder("inventory.allocation.latency")
+                .description("Warehouse allocation of one order")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.updateRate = MultiGauge.builder("inventory.sku.update.rate")
+                .description("Stock changes per second of the busiest SKUs")
+                .baseUnit("updates/s")
+                .register(registry);
+        this.contentionRate = MultiGauge.builder("inventory.sku.contention.rate")
+                .description("Reservations per second lost to a concurrent order, busiest SKUs")
+                .baseUnit("conflicts/s")
+                .register(registry);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void reservationFinished(Timer.Sample sample, String outcome) {
+        sample.stop(reservationTimers.computeIfAbsent(outcome, o -> Timer.builder("inventory.reservation.latency")
+                .description("reserveForOrder latency")
+                .tag("outcome", o)
+                .publishPercentileHistogram()
+                .register(registry)));
+    }
+
+    // reason: out_of_stock, unknown_sku, invalid_line, contention, error
+    public void rejected(String reason) {
+        rejectionCounters.computeIfAbsent(reason, r -> Counter.builder("inventory.reservation.rejections")
+                .description("Reservations rejected, by reason")
+                .tag("reason", r)
+                .register(registry)).increment();
+    }
+
+    public void skuUpdated(String sku) {
+        updates.offer(sku);
+    }
+
+    public void skuContended(String sku) {
+        contention.offer(sku);
+        rejected("contention");
+    }
+
+    public void sagaStartHandled(Timer.Sample sample) {
+        sample.stop(sagaStartTimer);
+    }
+
+    public void allocationFinished(Timer.Sample sample) {
+        sample.stop(allocationTimer);
+    }
+
+    public void sagaStartDuplicate() {
+        sagaStartDuplicates.increment();
+    }
+
+    public void backordered() {
+        backorders.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.metrics.top-k-window-ms:15000}")
+    public void publishTopK() {
+        publish(updateRate, updates.drainTop(topK));
+        publish(contentionRate, contention.drainTop(topK));
+    }
+
+    private void publish(MultiGauge gauge, List<Map.Entry<String, Long>> top) {
+        double seconds = windowMs / 1000.0;
+        gauge.register(top.stream()
+                .<MultiGauge.Row<?>>map(e -> MultiGauge.Row.of(Tags.of("sku", e.getKey()), e.getValue() / seconds))
+                .toList(), true);
+    }
+}
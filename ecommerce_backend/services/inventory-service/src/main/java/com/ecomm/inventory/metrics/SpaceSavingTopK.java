@@ -0,0 +1,85 @@
+package com.ecomm.inventory.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch: tracks at most {@code capacity} keys, so memory and metric
+ * cardinality stay fixed however many SKUs pass through. Counts of evicted keys are inherited by
+ * their replacement, which can only over-estimate; real heavy hitters are never lost.
+ * <p>
+ * Offers come from every reservation thread, so the sketch is striped by thread: each stripe has its
+ * own lock and small table, and the stripes are summed when the window is drained.
+ */
+final class SpaceSavingTopK {
+
+    private final int capacity;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    SpaceSavingTopK(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    SpaceSavingTopK(int capacity, int concurrency) {
+        int n = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        this.capacity = capacity;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = n - 1;
+    }
+
+    void offer(String key) {
+        Stripe stripe = stripes[(int) Thread.currentThread().threadId() & mask];
+        synchronized (stripe) {
+            stripe.offer(key, capacity);
+        }
+    }
+
+    // Heaviest n keys of the window, then start a new window
+    List<Map.Entry<String, Long>> drainTop(int n) {
+        Map<String, Long> merged = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<String, Long> counts;
+            synchronized (stripe) {
+                counts = stripe.counts;
+                stripe.counts = new HashMap<>();
+            }
+            counts.forEach((key, count) -> merged.merge(key, count, Long::sum));
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(merged.entrySet());
+        top.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return List.copyOf(top.subList(0, Math.min(n, top.size())));
+    }
+
+    private static final class Stripe {
+
+        private Map<String, Long> counts = new HashMap<>();
+
+        void offer(String key, int capacity) {
+            Long current = counts.get(key);
+            if (current != null) {
+                counts.put(key, current + 1);
+                return;
+            }
+            if (counts.size() < capacity) {
+                counts.put(key, 1L);
+                return;
+            }
+            Map.Entry<String, Long> min = null;
+            for (Map.Entry<String, Long> e : counts.entrySet()) {
+                if (min == null || e.getValue() < min.getValue()) {
+                    min = e;
+                }
+            }
+            long inherited = min.getValue();
+            counts.remove(min.getKey());
+            counts.put(key, inherited + 1);
+        }
+    }
+}
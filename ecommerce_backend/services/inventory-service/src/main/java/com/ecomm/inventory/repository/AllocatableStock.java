@@ -0,0 +1,10 @@
+package com.ecomm.inventory.repository;
+
+// One location of a SKU for the allocation index: what the location holds beyond its own
+// reserved units, and what the SKU can still be sold for in total (inventory_items.available)
+public record AllocatableStock(
+        Long warehouseId,
+        String sku,
+        Long free,
+        Long sellable
+) {}
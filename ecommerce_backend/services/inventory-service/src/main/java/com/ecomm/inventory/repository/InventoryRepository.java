@@ -1,11 +1,58 @@
 package com.ecomm.inventory.repository;
 
 import com.ecomm.inventory.domain.InventoryItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<InventoryItem, Long> {
 
     Optional<InventoryItem> findBySku(String sku);
+
+    // Row lock for the hot-SKU write-back, so the delta is computed against a stable value
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from InventoryItem i where i.sku = :sku")
+    Optional<InventoryItem> lockBySku(@Param("sku") String sku);
+
+    // Loads every SKU of an order in one round trip
+    List<InventoryItem> findAllBySkuIn(Collection<String> skus);
+
+    // Guarded decrement: only succeeds while enough stock is available (returns 0 otherwise)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryItem i
+               set i.available = i.available - :qty,
+                   i.reserved  = i.reserved + :qty
+             where i.sku = :sku
+               and i.available >= :qty
+            """)
+    int reserveStock(@Param("sku") String sku, @Param("qty") long qty);
+
+    // Inverse of reserveStock: moves a hold back from reserved to available
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryItem i
+               set i.available = i.available + :qty,
+                   i.reserved  = i.reserved - :qty
+             where i.sku = :sku
+               and i.reserved >= :qty
+            """)
+    int unreserveStock(@Param("sku") String sku, @Param("qty") long qty);
+
+    // Redis backend write-behind: Redis already enforced the limits, Postgres just follows
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryItem i
+               set i.available = i.available + :available,
+                   i.reserved  = i.reserved + :reserved
+             where i.sku = :sku
+            """)
+    int applyDelta(@Param("sku") String sku, @Param("available") long available, @Param("reserved") long reserved);
 }
@@ -0,0 +1,131 @@
+package com.ecomm.inventory.repository;
+
+import com.ecomm.inventory.domain.InventoryReservation;
+import com.ecomm.inventory.domain.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    boolean existsByOrderId(Long orderId);
+
+    boolean existsByOrderIdAndStatus(Long orderId, ReservationStatus status);
+
+    // Row locks serialize concurrent releases of the same order (second caller sees no HELD rows)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<InventoryReservation> findByOrderIdAndStatus(Long orderId, ReservationStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryReservation r
+               set r.status = com.ecomm.inventory.domain.ReservationStatus.RELEASED,
+                   r.releasedAt = :now
+             where r.orderId = :orderId
+               and r.status = com.ecomm.inventory.domain.ReservationStatus.HELD
+            """)
+    int markReleased(@Param("orderId") Long orderId, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryReservation r
+               set r.status = com.ecomm.inventory.domain.ReservationStatus.CONFIRMED
+             where r.orderId = :orderId
+               and r.status = com.ecomm.inventory.domain.ReservationStatus.HELD
+            """)
+    int markConfirmed(@Param("orderId") Long orderId);
+
+    // Expired holds that confirmForOrder took back from inventory_items; they no longer wait for a write-back
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryReservation r
+               set r.status = com.ecomm.inventory.domain.ReservationStatus.CONFIRMED,
+                   r.pending = false,
+                   r.releasedAt = null
+             where r.id in :ids
+               and r.status = com.ecomm.inventory.domain.ReservationStatus.EXPIRED
+            """)
+    int markReconfirmed(@Param("ids") Collection<Long> ids);
+
+    // Oldest expired holds first, read via the (status, expires_at) index.
+    // SKIP LOCKED (-2) lets several nodes sweep in parallel without waiting on each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select r from InventoryReservation r
+             where r.status = com.ecomm.inventory.domain.ReservationStatus.HELD
+               and r.expiresAt < :now
+             order by r.expiresAt
+            """)
+    List<InventoryReservation> lockExpiredHolds(@Param("now") Instant now, Pageable page);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryReservation r
+               set r.status = com.ecomm.inventory.domain.ReservationStatus.EXPIRED,
+                   r.releasedAt = :now
+             where r.id in :ids
+               and r.status = com.ecomm.inventory.domain.ReservationStatus.HELD
+            """)
+    int markExpired(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // ----------------- Hot-SKU write-back -----------------
+
+    // Confirmed holds still have to reach inventory_items; released/expired ones never will
+    @Query("""
+            select distinct r.sku from InventoryReservation r
+             where r.pending = true
+               and r.status in (com.ecomm.inventory.domain.ReservationStatus.HELD,
+                                com.ecomm.inventory.domain.ReservationStatus.CONFIRMED)
+            """)
+    List<String> findPendingSkus();
+
+    @Query("""
+            select coalesce(sum(r.quantity), 0) from InventoryReservation r
+             where r.sku = :sku
+               and r.pending = true
+               and r.status in (com.ecomm.inventory.domain.ReservationStatus.HELD,
+                                com.ecomm.inventory.domain.ReservationStatus.CONFIRMED)
+            """)
+    long sumPendingHolds(@Param("sku") String sku);
+
+    // Locked so a concurrent release either runs before the write-back (row skipped) or after it (row applied).
+    // Confirmed (paid) holds first, then oldest first: when stock runs short, paid orders are served
+    // before the unpaid holds admitted earliest.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select r from InventoryReservation r
+             where r.sku = :sku
+               and r.pending = true
+               and r.status in (com.ecomm.inventory.domain.ReservationStatus.HELD,
+                                com.ecomm.inventory.domain.ReservationStatus.CONFIRMED)
+             order by case when r.status = com.ecomm.inventory.domain.ReservationStatus.CONFIRMED then 0 else 1 end,
+                      r.id
+            """)
+    List<InventoryReservation> lockPendingHolds(@Param("sku") String sku);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update InventoryReservation r set r.pending = false where r.id in :ids")
+    int markApplied(@Param("ids") Collection<Long> ids);
+
+    // Unpaid pending holds the write-back could not cover: they never reached inventory_items, so nothing to give back
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update InventoryReservation r
+               set r.status = com.ecomm.inventory.domain.ReservationStatus.RELEASED,
+                   r.pending = false,
+                   r.releasedAt = :now
+             where r.id in :ids
+            """)
+    int markRejected(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+}
@@ -0,0 +1,18 @@
+package com.ecomm.inventory.repository;
+
+import com.ecomm.inventory.domain.InventoryStreamOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface InventoryStreamOffsetRepository extends JpaRepository<InventoryStreamOffset, String> {
+
+    // Only one node applies a given stream at a time; the others wait on this row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from InventoryStreamOffset o where o.stream = :stream")
+    Optional<InventoryStreamOffset> lockByStream(@Param("stream") String stream);
+}
@@ -0,0 +1,26 @@
+package com.ecomm.inventory.repository;
+
+import com.ecomm.inventory.domain.ProcessedSagaMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ProcessedSagaMessageRepository extends JpaRepository<ProcessedSagaMessage, String> {
+
+    // Warms the Bloom filter on startup, newest first
+    @Query("select m.messageId from ProcessedSagaMessage m where m.processedAt >= :since order by m.processedAt desc")
+    List<String> findRecentIds(@Param("since") Instant since, Pageable page);
+
+    // Starts of an order that were answered as reserved; the hot-SKU write-back may still reject them
+    @Query("select m from ProcessedSagaMessage m where m.orderId = :orderId and m.success = true and m.messageId like concat(:prefix, '%')")
+    List<ProcessedSagaMessage> findReservedByOrderId(@Param("orderId") Long orderId, @Param("prefix") String prefix);
+
+    @Modifying
+    @Query("delete from ProcessedSagaMessage m where m.processedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -0,0 +1,14 @@
+package com.ecomm.inventory.repository;
+
+import com.ecomm.inventory.domain.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+
+    List<Warehouse> findByActiveTrue();
+
+    Optional<Warehouse> findByCode(String code);
+}
@@ -0,0 +1,22 @@
+package com.ecomm.inventory.repository;
+
+import com.ecomm.inventory.domain.WarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+
+    // Source of the allocation index: only locations that can ship something of a SKU that is still sellable
+    @Query("""
+            select new com.ecomm.inventory.repository.AllocatableStock(
+                       s.warehouseId, s.sku, s.available - s.reserved, i.available)
+              from WarehouseStock s
+              join InventoryItem i on i.sku = s.sku
+             where s.available > s.reserved
+               and i.available > 0
+             order by s.sku
+            """)
+    List<AllocatableStock> findAllAllocatable();
+}
@@ -1,18 +1,29 @@
 package com.ecomm.inventory.saga;
 
+import com.ecomm.events.order.InventoryConfirmCommand;
+import com.ecomm.events.order.InventoryReleaseCommand;
 import com.ecomm.events.order.OrderSagaReply;
 import com.ecomm.events.order.OrderSagaStartEvent;
 import com.ecomm.events.order.SagaStep;
 import com.ecomm.events.saga.SagaStatus;
+import com.ecomm.inventory.domain.ProcessedSagaMessage;
+import com.ecomm.inventory.metrics.InventoryMetrics;
+import com.ecomm.inventory.service.HotSkuOversoldEvent;
 import com.ecomm.inventory.service.InventoryService;
 import com.ecomm.saga.kafka.SagaKafkaTopics;
 import com.ecomm.saga.kafka.SagaMessageKeys;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -20,7 +31,9 @@ import org.springframework.stereotype.Component;
 public class InventorySagaHandler {
 
     private final InventoryService inventoryService;
+    private final SagaStartInbox inbox;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final InventoryMetrics metrics;
 
     @KafkaListener(
             topics = SagaKafkaTopics.ORDER_SAGA_START,
@@ -29,35 +42,119 @@ public class InventorySagaHandler {
     public void onOrderSagaStart(@Payload OrderSagaStartEvent event) {
 
         log.info("Inventory-Service received SAGA START: {}", event);
+        Timer.Sample sample = metrics.startTimer();
+
+        // Redelivery (rebalance, retry): answer again with the recorded outcome, reserve nothing
+        Optional<ProcessedSagaMessage> processed = inbox.findProcessed(event.sagaId());
+        if (processed.isPresent()) {
+            log.info("Saga {} start already processed (reserved={}), re-sending reply",
+                    event.sagaId(), processed.get().isSuccess());
+            reply(event.sagaId(), event.orderId(), processed.get().isSuccess());
+            metrics.sagaStartDuplicate();
+            return;
+        }
+
+        boolean reserved;
+        try {
+            // Holds carry an expiry (inventory.reservation.hold-ttl) until payment confirms them
+            reserved = inbox.reserveOnce(event);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent delivery of the same start committed first: answer with its outcome,
+            // since that delivery may have failed before sending its own reply
+            metrics.sagaStartDuplicate();
+            Optional<ProcessedSagaMessage> winner = inbox.findCommitted(event.sagaId());
+            if (winner.isEmpty()) {
+                // Conflict without a committed row: let the listener retry the delivery
+                throw e;
+            }
+            log.info("Saga {} start processed concurrently by another delivery (reserved={}), re-sending reply",
+                    event.sagaId(), winner.get().isSuccess());
+            reply(event.sagaId(), event.orderId(), winner.get().isSuccess());
+            return;
+        } catch (TransactionException e) {
+            // Rolled back (unexpected DB error inside the reservation): nothing recorded, report failure
+            log.error("Reservation transaction for saga {} rolled back: {}", event.sagaId(), e.getMessage());
+            reserved = false;
+        }
+
+        reply(event.sagaId(), event.orderId(), reserved);
+        metrics.sagaStartHandled(sample);
+    }
+
+    /**
+     * Hot-SKU holds the write-back could not cover: the order was told "reserved" but never got
+     * the stock. Unpaid orders: free their other holds, correct the inbox and fail the saga.
+     * Paid orders are backordered instead: their holds stay confirmed and pending, and are written
+     * back once the SKU is restocked, so neither their stock nor their payment is given back.
+     */
+    @EventListener
+    public void onHotSkuOversold(HotSkuOversoldEvent event) {
+        for (Long orderId : event.orderIds()) {
+            try {
+                inventoryService.releaseForOrder(orderId);
+                for (String sagaId : inbox.recordRejected(orderId)) {
+                    log.warn("Saga {} order {} rejected: hot SKU {} oversold", sagaId, orderId, event.sku());
+                    sendReply(sagaId, orderId, false, "OVERSOLD", "Hot SKU " + event.sku() + " oversold");
+                }
+            } catch (Exception e) {
+                log.error("Failing order {} after hot SKU {} oversold failed: {}", orderId, event.sku(), e.getMessage(), e);
+            }
+        }
+        for (Long orderId : event.backorderedOrders()) {
+            log.warn("Paid order {} backordered: hot SKU {} oversold, hold waits for restock", orderId, event.sku());
+            metrics.backordered();
+        }
+    }
 
-        boolean reserved = inventoryService.reserveForOrder(Long.valueOf(event.orderId()), event.items());
+    private void reply(String sagaId, String orderId, boolean reserved) {
+        sendReply(sagaId, Long.parseLong(orderId), reserved, "OUT_OF_STOCK", "Insufficient stock");
+    }
 
+    private void sendReply(String sagaId, Long orderId, boolean reserved, String errorCode, String errorMessage) {
         SagaStatus status = reserved
                 ? SagaStatus.INVENTORY_RESERVED
                 : SagaStatus.FAILED;
 
         OrderSagaReply reply = new OrderSagaReply(
-                event.sagaId(),
-                Long.parseLong(event.orderId()),
+                sagaId,
+                orderId,
                 SagaStep.INVENTORY,
                 status,
-                reserved ? null : "OUT_OF_STOCK",
-                reserved ? null : "Insufficient stock",
+                reserved ? null : errorCode,
+                reserved ? null : errorMessage,
                 System.currentTimeMillis()
         );
 
-        String key = SagaMessageKeys.commandKey(event.sagaId(), SagaStep.INVENTORY);
+        // Reply to orchestrator / order-service, keyed by saga so its replies stay in order;
+        // the orchestrator sends the payment command, with the amount and payer from the order
+        kafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_REPLIES, SagaMessageKeys.replyKey(sagaId), reply);
+    }
+
+    @KafkaListener(
+            topics = SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY_RELEASE,
+            groupId = "inventory-service"
+    )
+    public void onInventoryRelease(@Payload InventoryReleaseCommand command) {
+
+        log.info("Inventory-Service received RELEASE for saga {} order {}: {}",
+                command.sagaId(), command.orderId(), command.reason());
+
+        // Idempotent: the ledger only releases holds that are still HELD
+        inventoryService.releaseForOrder(command.orderId());
+    }
+
+    @KafkaListener(
+            topics = SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY_CONFIRM,
+            groupId = "inventory-service"
+    )
+    public void onInventoryConfirm(@Payload InventoryConfirmCommand command) {
 
-        // Reply to orchestrator / order-service
-        kafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_REPLIES, key, reply);
+        log.info("Inventory-Service received CONFIRM for saga {} order {}", command.sagaId(), command.orderId());
 
-        // If success → forward to Payment step
-        if (reserved) {
-            kafkaTemplate.send(
-                    SagaKafkaTopics.ORDER_SAGA_CMD_PAYMENT,
-                    SagaMessageKeys.commandKey(event.sagaId(), SagaStep.PAYMENT),
-                    reply
-            );
+        if (!inventoryService.confirmForOrder(command.orderId())) {
+            // Paid, but the hold expired and the stock is gone: the orchestrator has to compensate the payment
+            sendReply(command.sagaId(), command.orderId(), false, "HOLD_EXPIRED",
+                    "Stock hold expired before payment and the stock was sold");
         }
     }
 }
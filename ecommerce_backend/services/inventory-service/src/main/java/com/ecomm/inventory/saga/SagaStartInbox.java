@@ -0,0 +1,175 @@
+package com.ecomm.inventory.saga;
+
+import com.ecomm.events.order.OrderSagaStartEvent;
+import com.ecomm.inventory.domain.ProcessedSagaMessage;
+import com.ecomm.inventory.repository.ProcessedSagaMessageRepository;
+import com.ecomm.inventory.service.InventoryService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Inbox for saga starts, so a redelivered start never reserves twice.
+ * <p>
+ * A Bloom filter answers "never seen" without touching the database, which is the common case.
+ * A hit is confirmed against the inbox table. The inbox row is inserted before the reservation,
+ * in the same transaction: a concurrent duplicate blocks on the primary key and then fails,
+ * rolling back its own reservation. Other nodes' filters do not know this node's ids, so the
+ * primary key, not the filter, is what guarantees at-most-once.
+ * <p>
+ * A Bloom filter cannot forget, so after each purge it is rebuilt from the rows that are left;
+ * otherwise it would fill up with purged ids and stop saving lookups.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaStartInbox {
+
+    private static final String MESSAGE_TYPE = "SAGA_START:";
+
+    private final ProcessedSagaMessageRepository inboxRepo;
+    private final InventoryService inventoryService;
+
+    @Value("${inventory.inbox.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${inventory.inbox.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Redeliveries come within minutes; the window only bounds the table
+    @Value("${inventory.inbox.retention:P7D}")
+    private Duration retention;
+
+    private volatile BloomFilter seen;
+    // Filter being rebuilt: ids committed meanwhile go into both, so none is missed at the swap
+    private volatile BloomFilter rebuilding;
+
+    public record Outcome(boolean reserved, boolean duplicate) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!rebuildFilter()) {
+            log.warn("Saga inbox warm-up failed, starting with an empty filter");
+            seen = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+    }
+
+    // Loads the ids of the retention window into a fresh filter; on failure the current one stays
+    private boolean rebuildFilter() {
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = filter;
+        try {
+            inboxRepo.findRecentIds(Instant.now().minus(retention),
+                            PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, expectedInsertions)))
+                    .forEach(filter::put);
+            seen = filter;
+            return true;
+        } catch (Exception e) {
+            log.warn("Rebuilding the saga inbox filter failed: {}", e.getMessage());
+            return false;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * A recorded outcome if this start was already handled, empty otherwise.
+     */
+    public Optional<ProcessedSagaMessage> findProcessed(String sagaId) {
+        String messageId = MESSAGE_TYPE + sagaId;
+        BloomFilter filter = seen;
+        if (filter != null && !filter.mightContain(messageId)) {
+            return Optional.empty();
+        }
+        return inboxRepo.findById(messageId);
+    }
+
+    /**
+     * The recorded outcome straight from the table. After a primary-key conflict the winner may be
+     * another node, whose id this node's filter has never seen.
+     */
+    public Optional<ProcessedSagaMessage> findCommitted(String sagaId) {
+        return inboxRepo.findById(MESSAGE_TYPE + sagaId);
+    }
+
+    /**
+     * Reserves stock and records the start in one transaction.
+     * Throws DataIntegrityViolationException when another delivery of the same start won the race.
+     */
+    @Transactional
+    public boolean reserveOnce(OrderSagaStartEvent event) {
+        String messageId = MESSAGE_TYPE + event.sagaId();
+        Long orderId = Long.valueOf(event.orderId());
+
+        ProcessedSagaMessage entry = inboxRepo.saveAndFlush(ProcessedSagaMessage.builder()
+                .messageId(messageId)
+                .orderId(orderId)
+                .success(false)
+                .processedAt(Instant.now())
+                .build());
+
+        boolean reserved = inventoryService.reserveForOrder(orderId, event.items());
+        entry.setSuccess(reserved);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Rebuild first: once it reads null, a finished rebuild has already been swapped in
+                BloomFilter next = rebuilding;
+                if (next != null) {
+                    next.put(messageId);
+                }
+                BloomFilter filter = seen;
+                if (filter != null) {
+                    filter.put(messageId);
+                }
+            }
+        });
+        return reserved;
+    }
+
+    /**
+     * Flips the recorded outcome of an order's start to failed, so redeliveries answer failed too.
+     * Returns the saga ids whose reply must be corrected.
+     */
+    @Transactional
+    public List<String> recordRejected(Long orderId) {
+        List<ProcessedSagaMessage> entries = inboxRepo.findReservedByOrderId(orderId, MESSAGE_TYPE);
+        entries.forEach(entry -> entry.setSuccess(false));
+        return entries.stream()
+                .map(entry -> entry.getMessageId().substring(MESSAGE_TYPE.length()))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.inbox.purge-interval-ms:3600000}",
+            initialDelayString = "${inventory.inbox.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        int purged = inboxRepo.deleteOlderThan(Instant.now().minus(retention));
+        if (purged == 0) {
+            return;
+        }
+        log.info("Purged {} saga inbox entries older than {}", purged, retention);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuildFilter();
+            }
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecomm.inventory.service;
+
+import java.util.Set;
+
+/**
+ * Published after a hot-SKU write-back committed without some of the holds it had admitted,
+ * because inventory_items did not have the stock (over-admission across nodes).
+ * The orders in {@code orderIds} were not paid yet: they lost their hold on {@code sku} and have to be failed.
+ * The orders in {@code backorderedOrders} are already paid: their holds stay pending and are written back
+ * as soon as stock arrives, they must not be failed.
+ */
+public record HotSkuOversoldEvent(String sku, Set<Long> orderIds, Set<Long> backorderedOrders) {
+}
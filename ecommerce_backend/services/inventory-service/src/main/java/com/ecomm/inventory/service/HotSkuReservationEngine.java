@@ -0,0 +1,384 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.inventory.domain.InventoryItem;
+import com.ecomm.inventory.domain.InventoryReservation;
+import com.ecomm.inventory.domain.ReservationStatus;
+import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.repository.InventoryRepository;
+import com.ecomm.inventory.repository.InventoryReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory admission for flash-sale SKUs.
+ * <p>
+ * Hot SKUs get a lock-free counter of sellable units. Reservations are admitted with a CAS
+ * on that counter and recorded in the ledger as {@code pending}; a periodic write-back applies
+ * the pending total per SKU to {@code inventory_items} with one guarded update, instead of
+ * every order queueing on the same row lock. Like the release paths, the write-back locks the
+ * ledger rows before the {@code inventory_items} row.
+ * <p>
+ * The ledger is the source of truth: on startup a counter is rebuilt as
+ * {@code available - sum(pending holds)}. Changes made by others (adjustments, releases of
+ * applied holds, other nodes) are folded into the counter at each write-back. With several
+ * nodes the counters can over-admit by at most one flush interval of traffic; the write-back then
+ * applies confirmed holds first and the oldest unpaid holds that fit, and rejects the remaining unpaid
+ * ones ({@link HotSkuOversoldEvent}), so those orders fail their saga. Confirmed holds that do not fit
+ * belong to paid orders: they are backordered, staying pending until stock arrives.
+ * Run hot SKUs on one node where that matters.
+ * <p>
+ * Hot SKUs are configured per sale ({@code inventory.hot-sku.skus}), promoted at runtime by an
+ * admin, or detected from reservation rate. Promoted SKUs stay hot until restart.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotSkuReservationEngine {
+
+    private final InventoryRepository repo;
+    private final InventoryReservationRepository reservationRepo;
+    private final TransactionTemplate txTemplate;
+    private final CacheManager cacheManager;
+    private final InventoryUpdatePublisher updatePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.hot-sku.enabled:false}")
+    private boolean enabled;
+
+    // Comma-separated SKUs of the current sale
+    @Value("${inventory.hot-sku.skus:}")
+    private String configuredSkus;
+
+    // Reservations per window that make a SKU hot; 0 turns detection off
+    @Value("${inventory.hot-sku.detect-threshold:0}")
+    private long detectThreshold;
+
+    @Value("${inventory.hot-sku.detect-window-ms:1000}")
+    private long detectWindowMs;
+
+    private final Map<String, HotCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> demand = new ConcurrentHashMap<>();
+    private volatile long windowStartedAt = System.currentTimeMillis();
+    // Ids of the backordered holds per SKU as of the last write-back; only touched by the flusher
+    private final Map<String, Set<Long>> backorders = new ConcurrentHashMap<>();
+
+    private static final class HotCounter {
+        // Units this node may still admit
+        final AtomicLong remaining;
+        // inventory_items.available as of the last write-back; only touched by the flusher
+        volatile long lastKnownAvailable;
+
+        HotCounter(long remaining, long lastKnownAvailable) {
+            this.remaining = new AtomicLong(remaining);
+            this.lastKnownAvailable = lastKnownAvailable;
+        }
+    }
+
+    private record FlushResult(long availableBefore, long applied, long reservedBefore, Set<Long> rejectedOrders,
+                               List<InventoryReservation> backordered) {
+    }
+
+    // ----------------- LIFECYCLE -----------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Pending holds left by a crash are applied even if the engine has since been disabled
+        recoverPending();
+
+        if (!enabled) {
+            return;
+        }
+        Arrays.stream(configuredSkus.split(","))
+                .map(String::trim)
+                .filter(sku -> !sku.isEmpty())
+                .forEach(this::promote);
+        log.info("Hot-SKU engine started with {} skus", counters.size());
+    }
+
+    private void recoverPending() {
+        try {
+            List<String> skus = reservationRepo.findPendingSkus();
+            if (!skus.isEmpty()) {
+                log.info("Applying pending hot-SKU holds left from a previous run: {}", skus);
+                skus.forEach(this::flushSku);
+            }
+        } catch (Exception e) {
+            log.error("Hot-SKU recovery failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // ----------------- ADMISSION -----------------
+    public boolean isHot(String sku) {
+        return enabled && counters.containsKey(sku);
+    }
+
+    public void recordDemand(Collection<String> skus) {
+        if (!enabled || detectThreshold <= 0) {
+            return;
+        }
+        skus.forEach(sku -> demand.computeIfAbsent(sku, k -> new LongAdder()).increment());
+    }
+
+    /**
+     * Takes all lines or none.
+     * If the caller's transaction does not commit, the units are returned automatically.
+     */
+    public boolean tryAcquire(Map<String, Long> lines) {
+        List<Map.Entry<String, Long>> taken = new ArrayList<>(lines.size());
+        for (Map.Entry<String, Long> line : lines.entrySet()) {
+            HotCounter counter = counters.get(line.getKey());
+            if (counter == null || !take(counter.remaining, line.getValue())) {
+                taken.forEach(t -> giveBack(t.getKey(), t.getValue()));
+                return false;
+            }
+            taken.add(line);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        lines.forEach(HotSkuReservationEngine.this::giveBack);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // For callers that reject the order after acquiring, without rolling back
+    public void giveBack(Map<String, Long> lines) {
+        lines.forEach(this::giveBack);
+    }
+
+    /**
+     * For holds that never reached inventory_items (released or expired while pending):
+     * the units go back to the counter once the status change is committed.
+     */
+    public void giveBackAfterCommit(String sku, long qty) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            giveBack(sku, qty);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                giveBack(sku, qty);
+            }
+        });
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> view = new TreeMap<>();
+        counters.forEach((sku, counter) -> view.put(sku, counter.remaining.get()));
+        return view;
+    }
+
+    private static boolean take(AtomicLong remaining, long qty) {
+        long current;
+        do {
+            current = remaining.get();
+            if (current < qty) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current - qty));
+        return true;
+    }
+
+    private void giveBack(String sku, long qty) {
+        HotCounter counter = counters.get(sku);
+        if (counter != null) {
+            counter.remaining.addAndGet(qty);
+        }
+    }
+
+    // ----------------- PROMOTION -----------------
+    public synchronized boolean promote(String sku) {
+        if (!enabled) {
+            throw new IllegalStateException("Hot-SKU engine is disabled (inventory.hot-sku.enabled=false)");
+        }
+        if (counters.containsKey(sku)) {
+            return true;
+        }
+        HotCounter counter = txTemplate.execute(status -> {
+            InventoryItem item = repo.findBySku(sku).orElse(null);
+            if (item == null) {
+                return null;
+            }
+            // Pending holds of a previous run are already promised away but not yet in available
+            long pending = reservationRepo.sumPendingHolds(sku);
+            return new HotCounter(item.getAvailable() - pending, item.getAvailable());
+        });
+        if (counter == null) {
+            log.warn("Cannot promote unknown SKU {} to hot", sku);
+            return false;
+        }
+        counters.put(sku, counter);
+        log.info("SKU {} is now hot, admitting {} units from memory", sku, counter.remaining.get());
+        return true;
+    }
+
+    private void detectHotSkus() {
+        long now = System.currentTimeMillis();
+        if (detectThreshold <= 0 || now - windowStartedAt < detectWindowMs) {
+            return;
+        }
+        demand.forEach((sku, count) -> {
+            if (count.sum() >= detectThreshold && !counters.containsKey(sku)) {
+                promote(sku);
+            }
+        });
+        demand.clear();
+        windowStartedAt = now;
+    }
+
+    // ----------------- WRITE-BACK -----------------
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.flush-interval-ms:250}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            detectHotSkus();
+
+            Set<String> skus = new TreeSet<>(counters.keySet());
+            skus.addAll(reservationRepo.findPendingSkus());
+            skus.forEach(this::flushSku);
+        } catch (Exception e) {
+            log.error("Hot-SKU write-back failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flushSku(String sku) {
+        // Taken up front: a SKU promoted mid-flush already starts from the post-flush value
+        HotCounter counter = counters.get(sku);
+        FlushResult result;
+        try {
+            result = txTemplate.execute(status -> {
+                // Ledger rows before the stock row, the same order releaseForOrder and the expiry sweep lock in
+                List<InventoryReservation> pending = reservationRepo.lockPendingHolds(sku);
+                InventoryItem item = repo.lockBySku(sku).orElse(null);
+                if (item == null) {
+                    return null;
+                }
+                long available = item.getAvailable();
+                long reserved = item.getReserved();
+
+                long total = pending.stream().mapToLong(InventoryReservation::getQuantity).sum();
+                if (total == 0) {
+                    return new FlushResult(available, 0, reserved, Set.of(), List.of());
+                }
+                if (total <= available) {
+                    repo.reserveStock(sku, total);
+                    reservationRepo.markApplied(pending.stream().map(InventoryReservation::getId).toList());
+                    return new FlushResult(available, total, reserved, Set.of(), List.of());
+                }
+
+                // Over-admitted: apply what fits, confirmed holds first. Paid holds that do not fit are
+                // backordered (left pending); only unpaid ones are rejected so their orders fail.
+                List<InventoryReservation> fits = new ArrayList<>();
+                long applied = 0;
+                for (InventoryReservation hold : pending) {
+                    if (applied + hold.getQuantity() > available) {
+                        break;
+                    }
+                    fits.add(hold);
+                    applied += hold.getQuantity();
+                }
+                List<InventoryReservation> left = pending.subList(fits.size(), pending.size());
+                List<InventoryReservation> backordered = left.stream()
+                        .filter(hold -> hold.getStatus() == ReservationStatus.CONFIRMED)
+                        .toList();
+                List<InventoryReservation> rejected = left.stream()
+                        .filter(hold -> hold.getStatus() != ReservationStatus.CONFIRMED)
+                        .toList();
+                if (applied > 0) {
+                    repo.reserveStock(sku, applied);
+                    reservationRepo.markApplied(fits.stream().map(InventoryReservation::getId).toList());
+                }
+                if (!rejected.isEmpty()) {
+                    reservationRepo.markRejected(rejected.stream().map(InventoryReservation::getId).toList(), Instant.now());
+                }
+
+                Set<Long> rejectedOrders = new TreeSet<>();
+                rejected.forEach(hold -> rejectedOrders.add(hold.getOrderId()));
+                if (!rejectedOrders.isEmpty()) {
+                    log.error("Hot SKU {} oversold: {} pending units but only {} available, rejected orders {}",
+                            sku, total, available, rejectedOrders);
+                }
+                return new FlushResult(available, applied, reserved, rejectedOrders, backordered);
+            });
+        } catch (Exception e) {
+            log.error("Write-back for hot SKU {} failed: {}", sku, e.getMessage(), e);
+            return;
+        }
+        if (result == null) {
+            return;
+        }
+
+        // Fold in whatever changed available behind our back since the last write-back
+        if (counter != null) {
+            long external = result.availableBefore() - counter.lastKnownAvailable;
+            if (external != 0) {
+                counter.remaining.addAndGet(external);
+            }
+            counter.lastKnownAvailable = result.availableBefore() - result.applied();
+        }
+
+        // Backordered holds are reported once; the stock they wait for must not be admitted again
+        Set<Long> known = backorders.getOrDefault(sku, Set.of());
+        List<InventoryReservation> newlyBackordered = result.backordered().stream()
+                .filter(hold -> !known.contains(hold.getId()))
+                .toList();
+        if (result.backordered().isEmpty()) {
+            if (backorders.remove(sku) != null) {
+                log.info("Backorders of hot SKU {} are filled", sku);
+            }
+        } else {
+            backorders.put(sku, result.backordered().stream().map(InventoryReservation::getId).collect(Collectors.toSet()));
+        }
+        if (counter != null && !newlyBackordered.isEmpty()) {
+            counter.remaining.addAndGet(-newlyBackordered.stream().mapToLong(InventoryReservation::getQuantity).sum());
+        }
+
+        if (result.applied() > 0) {
+            Cache cache = cacheManager.getCache("inventory");
+            if (cache != null) {
+                cache.evict(sku);
+            }
+            updatePublisher.publishUpdate(new InventoryResponse(sku,
+                    result.availableBefore() - result.applied(), result.reservedBefore() + result.applied()));
+            log.debug("Wrote back {} units for hot SKU {}", result.applied(), sku);
+        }
+        if (!result.rejectedOrders().isEmpty() || !newlyBackordered.isEmpty()) {
+            Set<Long> backorderedOrders = new TreeSet<>();
+            newlyBackordered.forEach(hold -> backorderedOrders.add(hold.getOrderId()));
+            eventPublisher.publishEvent(new HotSkuOversoldEvent(sku, result.rejectedOrders(), backorderedOrders));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.inventory.dto.response.InventoryImportResponse;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming bulk stock import (warehouse sync).
+ * <p>
+ * Lines are parsed one at a time and applied in chunks: one JDBC batch update per chunk in its own
+ * transaction, one bulk cache eviction per chunk and one WebSocket summary at the end.
+ * A chunk that fails is rolled back and reported; chunks before it stay applied.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryImportService {
+
+    // Same guard as adjustStock: unknown SKUs and negative results update nothing
+    private static final String APPLY_DELTA_SQL = """
+            update inventory_items
+               set available = available + ?
+             where sku = ?
+               and available + ? >= 0
+            """;
+
+    private static final int REJECTED_SAMPLE_SIZE = 100;
+    private static final String CSV_HEADER = "sku,delta";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate txTemplate;
+    private final InventoryStockCache stockCache;
+    private final InventoryUpdatePublisher updatePublisher;
+    private final StockLevelPublisher stockLevelPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${inventory.backend:db}")
+    private String backend;
+
+    public record ImportLine(String sku, Long delta) {
+    }
+
+    private static final class Progress {
+        long linesRead;
+        long applied;
+        long rejected;
+        final List<String> rejectedSample = new ArrayList<>();
+
+        void reject(String reason) {
+            rejected++;
+            if (rejectedSample.size() < REJECTED_SAMPLE_SIZE) {
+                rejectedSample.add(reason);
+            }
+        }
+    }
+
+    /**
+     * CSV: one {@code sku,delta} per line, optional {@code sku,delta} header on line 1.
+     * Rejections name the physical line, counting the header and blank lines.
+     */
+    public InventoryImportResponse importCsv(InputStream body, String actorUserId) throws IOException {
+        requireDbBackend();
+        Progress progress = new Progress();
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                progress.linesRead++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                // Only the exact column names make a header; anything else on line 1 is data ("SKU-1,abc" is rejected)
+                if (progress.linesRead == 1 && CSV_HEADER.equalsIgnoreCase(line.replace(" ", "").trim())) {
+                    continue;
+                }
+                String[] cols = line.split(",", -1);
+                if (cols.length != 2) {
+                    progress.reject("line " + progress.linesRead + ": expected sku,delta");
+                    continue;
+                }
+                try {
+                    add(chunk, new ImportLine(cols[0].trim(), Long.parseLong(cols[1].trim())), progress);
+                } catch (NumberFormatException e) {
+                    progress.reject("line " + progress.linesRead + ": invalid delta '" + cols[1].trim() + "'");
+                }
+            }
+        }
+        return finish(chunk, progress, actorUserId);
+    }
+
+    /**
+     * NDJSON: one {@code {"sku": "...", "delta": n}} object per line.
+     */
+    public InventoryImportResponse importNdjson(InputStream body, String actorUserId) throws IOException {
+        requireDbBackend();
+        Progress progress = new Progress();
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<ImportLine> lines = objectMapper.readerFor(ImportLine.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                progress.linesRead++;
+                add(chunk, lines.nextValue(), progress);
+            }
+        }
+        return finish(chunk, progress, actorUserId);
+    }
+
+    private void add(List<ImportLine> chunk, ImportLine line, Progress progress) {
+        if (line.sku() == null || line.sku().isBlank() || line.delta() == null) {
+            progress.reject("line " + progress.linesRead + ": sku and delta are required");
+            return;
+        }
+        chunk.add(line);
+        if (chunk.size() >= chunkSize) {
+            applyChunk(chunk, progress);
+            chunk.clear();
+        }
+    }
+
+    private InventoryImportResponse finish(List<ImportLine> chunk, Progress progress, String actorUserId) {
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, progress);
+        }
+        InventoryImportResponse response = new InventoryImportResponse(
+                progress.linesRead, progress.applied, progress.rejected, List.copyOf(progress.rejectedSample));
+        updatePublisher.publishImport(response);
+
+        log.info("Inventory import by user {}: read={}, applied={}, rejected={}",
+                actorUserId, progress.linesRead, progress.applied, progress.rejected);
+        return response;
+    }
+
+    private void applyChunk(List<ImportLine> chunk, Progress progress) {
+        try {
+            int[][] counts = txTemplate.execute(status -> jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, chunk, chunk.size(),
+                    (ps, line) -> {
+                        ps.setLong(1, line.delta());
+                        ps.setString(2, line.sku());
+                        ps.setLong(3, line.delta());
+                    }));
+
+            List<String> changed = new ArrayList<>(chunk.size());
+            int i = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    ImportLine line = chunk.get(i++);
+                    if (count == 0) {
+                        progress.reject(line.sku() + ": unknown SKU or stock would go negative");
+                    } else {
+                        progress.applied++;
+                        changed.add(line.sku());
+                    }
+                }
+            }
+            stockCache.evictAll(changed);
+            stockLevelPublisher.publishSkus(changed);
+        } catch (Exception e) {
+            log.error("Inventory import chunk of {} lines failed: {}", chunk.size(), e.getMessage(), e);
+            chunk.forEach(line -> progress.reject(line.sku() + ": chunk failed (" + e.getMessage() + ")"));
+        }
+    }
+
+    // In the Redis backend Postgres follows Redis; writing it directly would be overwritten
+    private void requireDbBackend() {
+        if (!"db".equals(backend)) {
+            throw new IllegalStateException("Bulk import is only supported with inventory.backend=db");
+        }
+    }
+}
@@ -13,6 +13,11 @@ public interface InventoryService {
      */
     InventoryResponse getBySku(String sku);
 
+    /**
+     * Stock for many SKUs in one call (listing pages, cart). Unknown SKUs are left out.
+     */
+    List<InventoryResponse> getBySkus(List<String> skus);
+
     /**
      * Admin/Seller stock adjustment.
      */
@@ -27,4 +32,18 @@ public interface InventoryService {
      * Saga: release reserved stock for an order (compensation).
      */
     void releaseForOrder(Long orderId);
+
+    /**
+     * Saga: payment succeeded, keep the order's holds (they stop expiring).
+     * Holds that expired before the payment arrived are reserved again if the stock is still there.
+     * @return false when the order has no stock left to keep (released, or expired and sold meanwhile);
+     *         the payment then has to be compensated
+     */
+    boolean confirmForOrder(Long orderId);
+
+    /**
+     * Return one batch of expired holds to available stock.
+     * @return number of holds expired (less than batchSize when nothing is left)
+     */
+    int releaseExpiredHolds(int batchSize);
 }
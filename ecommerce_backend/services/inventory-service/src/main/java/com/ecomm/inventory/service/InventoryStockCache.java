@@ -0,0 +1,161 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.inventory.cache.InventoryCacheInvalidationPublisher;
+import com.ecomm.inventory.cache.TwoTierCache;
+import com.ecomm.inventory.domain.InventoryItem;
+import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bulk access to the "inventory" Redis cache used by {@code @Cacheable getBySku}.
+ * Same keys ("inventory::{sku}"), same JSON values and TTL, so single and batch lookups share entries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryStockCache {
+
+    private static final String KEY_PREFIX = "inventory::";
+
+    private final StringRedisTemplate redis;
+    private final InventoryRepository repo;
+    private final Jackson2JsonRedisSerializer<InventoryResponse> inventoryResponseSerializer;
+    private final CacheManager cacheManager;
+    private final InventoryCacheInvalidationPublisher invalidationPublisher;
+
+    @Value("${inventory.cache.ttl:PT30S}")
+    private Duration ttl;
+
+    /**
+     * One MGET for all SKUs, one query for the misses, one pipelined write-back.
+     * Returns hits in request order; unknown SKUs are left out.
+     */
+    public Map<String, InventoryResponse> getAll(Collection<String> skus) {
+        List<String> distinct = skus.stream().distinct().toList();
+        Map<String, InventoryResponse> result = new LinkedHashMap<>();
+        if (distinct.isEmpty()) {
+            return result;
+        }
+
+        List<String> misses = new ArrayList<>();
+        List<byte[]> cached = readAll(distinct);
+        for (int i = 0; i < distinct.size(); i++) {
+            byte[] raw = cached == null ? null : cached.get(i);
+            InventoryResponse hit = raw == null ? null : deserialize(raw);
+            if (hit == null) {
+                misses.add(distinct.get(i));
+            }
+            // Keeps request order; misses are filled in below
+            result.put(distinct.get(i), hit);
+        }
+
+        if (!misses.isEmpty()) {
+            List<InventoryResponse> loaded = repo.findAllBySkuIn(misses).stream()
+                    .map(InventoryStockCache::toResponse)
+                    .toList();
+            loaded.forEach(r -> result.put(r.sku(), r));
+            writeAll(loaded);
+        }
+
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    /**
+     * Bulk eviction: one DEL for the Redis entries, one broadcast for every node's L1.
+     * Inside a transaction both happen after commit, so no reader can re-cache the old rows.
+     */
+    public void evictAll(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<String> pending = List.copyOf(skus);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(pending);
+                }
+            });
+            return;
+        }
+        evictNow(skus);
+    }
+
+    private void evictNow(Collection<String> skus) {
+        try {
+            redis.delete(skus.stream().map(sku -> KEY_PREFIX + sku).toList());
+        } catch (Exception e) {
+            log.warn("Inventory cache bulk eviction failed for {} skus: {}", skus.size(), e.getMessage());
+        }
+        if (cacheManager.getCache("inventory") instanceof TwoTierCache twoTier) {
+            twoTier.evictLocal(skus);
+            invalidationPublisher.publish(List.copyOf(skus));
+        }
+    }
+
+    private List<byte[]> readAll(List<String> skus) {
+        try {
+            byte[][] keys = skus.stream().map(InventoryStockCache::key).toArray(byte[][]::new);
+            return redis.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(keys));
+        } catch (Exception e) {
+            // Cache trouble must not fail the page: everything is read from the database instead
+            log.warn("Inventory cache MGET failed, falling back to database: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeAll(List<InventoryResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        try {
+            Expiration expiration = Expiration.from(ttl);
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                responses.forEach(r -> connection.stringCommands().set(key(r.sku()),
+                        inventoryResponseSerializer.serialize(r), expiration, RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Inventory cache write-back failed for {} skus: {}", responses.size(), e.getMessage());
+        }
+    }
+
+    private InventoryResponse deserialize(byte[] raw) {
+        try {
+            return inventoryResponseSerializer.deserialize(raw);
+        } catch (Exception e) {
+            // Entry written in an older format: treat as a miss and overwrite it
+            return null;
+        }
+    }
+
+    private static byte[] key(String sku) {
+        return (KEY_PREFIX + sku).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static InventoryResponse toResponse(InventoryItem item) {
+        return new InventoryResponse(item.getSku(), item.getAvailable(), item.getReserved());
+    }
+}
@@ -1,32 +1,144 @@
 package com.ecomm.inventory.service;
 
+import com.ecomm.inventory.dto.response.InventoryImportResponse;
 import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class InventoryUpdatePublisher {
 
+    public static final String BATCH_DESTINATION = "/topic/inventory/batch";
+    public static final String IMPORT_DESTINATION = "/topic/inventory/imports";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final StockLevelPublisher stockLevelPublisher;
+    private final InventoryRepository repo;
+
+    // Latest state per SKU since the last flush; older values of the same SKU are dropped
+    private final Map<String, InventoryResponse> pending = new ConcurrentHashMap<>();
+    // SKUs whose committed level is read at the next flush
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    @Value("${inventory.ws.max-batch-size:500}")
+    private int maxBatchSize;
+
+    // Keeps the old per-SKU destinations alive for dashboards that have not moved to the batch topic
+    @Value("${inventory.ws.per-sku-topics:true}")
+    private boolean perSkuTopics;
 
     /**
-     * Pushes live stock updates to WebSocket subscribers.
-     * Clients subscribe to:
-     *     /topic/inventory/{sku}
+     * Queues a live stock update; never blocks the caller.
+     * Every conflation window the latest value per SKU is pushed to WebSocket subscribers:
+     *     /topic/inventory/batch   (list of updates)
+     *     /topic/inventory/{sku}   (while per-sku-topics is on)
+     * and to the compacted stock-level topic read by other services.
+     * Inside a transaction the update is only queued once it commits, and dropped on rollback.
      */
     public void publishUpdate(InventoryResponse response) {
+        afterCommit(() -> pending.put(response.sku(), response));
+    }
+
+    /**
+     * For SKUs changed by the current transaction: the next flush reads their committed level,
+     * so a level is never published before (or without) the commit that made it, and concurrent
+     * transactions cannot leave an older value behind a newer one.
+     */
+    public void publishChanged(Collection<String> skus) {
+        List<String> copy = List.copyOf(skus);
+        afterCommit(() -> changed.addAll(copy));
+    }
+
+    /**
+     * One summary frame per bulk import instead of one update per SKU;
+     * dashboards reload what they show.
+     */
+    public void publishImport(InventoryImportResponse summary) {
+        try {
+            messagingTemplate.convertAndSend(IMPORT_DESTINATION, summary);
+        } catch (Exception e) {
+            log.error("Failed to send WebSocket import summary: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ws.conflation-window-ms:250}")
+    public void flush() {
+        readChanged();
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<InventoryResponse> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+        for (String sku : pending.keySet()) {
+            InventoryResponse latest = pending.remove(sku);
+            if (latest == null) {
+                continue;
+            }
+            batch.add(latest);
+            if (batch.size() == maxBatchSize) {
+                send(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void readChanged() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<String> skus = new ArrayList<>(changed);
+        changed.removeAll(skus);
+        try {
+            repo.findAllBySkuIn(skus).forEach(item -> pending.put(item.getSku(),
+                    new InventoryResponse(item.getSku(), item.getAvailable(), item.getReserved())));
+        } catch (Exception e) {
+            // Retried at the next flush
+            changed.addAll(skus);
+            log.error("Failed to read stock levels of {} changed skus: {}", skus.size(), e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void send(List<InventoryResponse> batch) {
+        stockLevelPublisher.publish(batch);
         try {
-            messagingTemplate.convertAndSend(
-                    "/topic/inventory/" + response.sku(),
-                    response
-            );
-            log.info("Pushed WS inventory update for SKU {}: {}", response.sku(), response);
+            messagingTemplate.convertAndSend(BATCH_DESTINATION, batch);
+            if (perSkuTopics) {
+                batch.forEach(update -> messagingTemplate.convertAndSend("/topic/inventory/" + update.sku(), update));
+            }
+            log.debug("Pushed WS inventory batch with {} skus", batch.size());
         } catch (Exception e) {
-            log.error("Failed to send WebSocket inventory update for {}: {}", response.sku(), e.getMessage());
+            log.error("Failed to send WebSocket inventory batch of {} skus: {}", batch.size(), e.getMessage());
         }
     }
 }
@@ -0,0 +1,44 @@
+package com.ecomm.inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Key layout of the Redis inventory backend. The shared prefix carries a hash tag,
+ * so every script's keys land in the same cluster slot.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.backend", havingValue = "redis")
+public class RedisInventoryKeys {
+
+    private final String prefix;
+
+    public RedisInventoryKeys(@Value("${inventory.redis.hash-tag:inv}") String hashTag) {
+        this.prefix = "{" + hashTag + "}:";
+    }
+
+    // Hash: available, reserved
+    public String stockPrefix() {
+        return prefix + "stock:";
+    }
+
+    public String stock(String sku) {
+        return stockPrefix() + sku;
+    }
+
+    // Hash: sku -> quantity, plus _status
+    public String hold(Long orderId) {
+        return prefix + "hold:" + orderId;
+    }
+
+    // Sorted set: order id scored by hold expiry (epoch ms)
+    public String holdExpiry() {
+        return prefix + "hold-expiry";
+    }
+
+    // Stream of (sku, available, reserved) deltas waiting to be applied to Postgres
+    public String deltas() {
+        return prefix + "deltas";
+    }
+}
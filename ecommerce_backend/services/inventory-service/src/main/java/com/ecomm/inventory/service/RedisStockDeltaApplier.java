@@ -0,0 +1,130 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.inventory.domain.InventoryStreamOffset;
+import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.repository.InventoryRepository;
+import com.ecomm.inventory.repository.InventoryStreamOffsetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Write-behind of the Redis inventory backend: folds stream deltas into inventory_items.
+ * The stream position is stored in Postgres next to the applied deltas, so a crash never applies an entry twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.backend", havingValue = "redis")
+public class RedisStockDeltaApplier {
+
+    private static final String INITIAL_ID = "0-0";
+
+    private final StringRedisTemplate redis;
+    private final RedisInventoryKeys keys;
+    private final InventoryRepository repo;
+    private final InventoryStreamOffsetRepository offsetRepo;
+    private final TransactionTemplate txTemplate;
+    private final InventoryUpdatePublisher updatePublisher;
+    private final RedisScript<Long> trimDeltasScript;
+
+    @Value("${inventory.redis.apply-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${inventory.redis.apply-max-batches:20}")
+    private int maxBatchesPerRun;
+
+    // The stream is only trimmed behind the applied offset, so its length is the applier's lag
+    @Value("${inventory.redis.stream-lag-warn:100000}")
+    private long lagWarnThreshold;
+
+    private record Delta(long available, long reserved) {
+        Delta plus(Delta other) {
+            return new Delta(available + other.available, reserved + other.reserved);
+        }
+    }
+
+    private record Applied(String lastId, int count) {
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.redis.apply-interval-ms:500}")
+    public void apply() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (applyBatch() < batchSize) {
+                    break;
+                }
+            }
+            Long backlog = redis.opsForStream().size(keys.deltas());
+            if (backlog != null && backlog > lagWarnThreshold) {
+                log.warn("Redis stock delta stream holds {} unapplied entries (warn above {})", backlog, lagWarnThreshold);
+            }
+        } catch (Exception e) {
+            log.error("Applying Redis stock deltas failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int applyBatch() {
+        String stream = keys.deltas();
+        Map<String, Delta> perSku = new TreeMap<>();
+
+        Applied applied = txTemplate.execute(status -> {
+            InventoryStreamOffset offset = offsetRepo.lockByStream(stream)
+                    .orElseGet(() -> offsetRepo.save(InventoryStreamOffset.builder()
+                            .stream(stream).lastId(INITIAL_ID).updatedAt(Instant.now()).build()));
+
+            List<MapRecord<String, Object, Object>> records = redis.opsForStream().read(
+                    StreamReadOptions.empty().count(batchSize),
+                    StreamOffset.create(stream, ReadOffset.from(offset.getLastId())));
+            if (records == null || records.isEmpty()) {
+                return null;
+            }
+
+            // One update per SKU for the whole batch, in SKU order
+            records.forEach(r -> perSku.merge((String) r.getValue().get("sku"), new Delta(
+                    Long.parseLong((String) r.getValue().get("available")),
+                    Long.parseLong((String) r.getValue().get("reserved"))), Delta::plus));
+            perSku.forEach((sku, delta) -> {
+                if (repo.applyDelta(sku, delta.available(), delta.reserved()) == 0) {
+                    log.error("Redis stock delta for unknown sku {} dropped: {}", sku, delta);
+                }
+            });
+
+            offset.setLastId(records.get(records.size() - 1).getId().getValue());
+            offset.setUpdatedAt(Instant.now());
+            offsetRepo.save(offset);
+            return new Applied(offset.getLastId(), records.size());
+        });
+
+        if (applied == null) {
+            return 0;
+        }
+        redis.execute(trimDeltasScript, List.of(stream), applied.lastId());
+
+        // Dashboards get the live Redis value once per batch instead of once per order
+        perSku.keySet().forEach(sku -> {
+            List<Object> values = redis.opsForHash().multiGet(keys.stock(sku), List.of("available", "reserved"));
+            if (values.get(0) != null) {
+                updatePublisher.publishUpdate(new InventoryResponse(sku,
+                        Long.parseLong((String) values.get(0)), Long.parseLong((String) values.get(1))));
+            }
+        });
+        log.debug("Applied {} Redis stock deltas up to {} for {} skus", applied.count(), applied.lastId(), perSku.size());
+        return applied.count();
+    }
+}
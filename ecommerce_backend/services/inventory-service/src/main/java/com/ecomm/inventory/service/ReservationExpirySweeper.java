@@ -0,0 +1,47 @@
+package com.ecomm.inventory.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns holds of stalled sagas to available stock.
+ * Each batch runs in its own transaction so a large backlog never holds locks for long.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationExpirySweeper {
+
+    private final InventoryService inventoryService;
+
+    @Value("${inventory.reservation.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.reservation.sweep-max-batches:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(
+            fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}",
+            initialDelayString = "${inventory.reservation.sweep-initial-delay-ms:30000}"
+    )
+    public void sweep() {
+        try {
+            int total = 0;
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int swept = inventoryService.releaseExpiredHolds(batchSize);
+                total += swept;
+                if (swept < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Reservation sweeper returned {} expired holds to stock", total);
+            }
+        } catch (Exception e) {
+            log.error("Reservation expiry sweep failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.events.inventory.InventoryStockLevelEvent;
+import com.ecomm.inventory.domain.InventoryItem;
+import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.repository.InventoryRepository;
+import com.ecomm.saga.kafka.SagaKafkaTopics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Publishes stock levels to the compacted inventory.stock.levels.v1 topic, keyed by SKU,
+ * for read models in other services (product search).
+ * <p>
+ * Fed from the conflated update stream, so a burst of reservations on one SKU becomes
+ * one record per conflation window. Best effort: a lost record is corrected by the next change
+ * of that SKU or by {@link #republishAll()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockLevelPublisher {
+
+    private static final int REPUBLISH_PAGE_SIZE = 500;
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final InventoryRepository repo;
+
+    public void publish(List<InventoryResponse> levels) {
+        long now = System.currentTimeMillis();
+        levels.forEach(level -> send(new InventoryStockLevelEvent(level.sku(), level.available(), level.reserved(), now)));
+    }
+
+    // For paths that change many rows without going through the update stream (bulk import)
+    public void publishSkus(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        repo.findAllBySkuIn(skus).forEach(item -> send(toEvent(item, now)));
+    }
+
+    /**
+     * Sends the current level of every SKU, page by page. Seeds a new consumer
+     * and heals records lost while Kafka was unavailable.
+     */
+    public long republishAll() {
+        long sent = 0;
+        Page<InventoryItem> page;
+        int pageNumber = 0;
+        do {
+            page = repo.findAll(PageRequest.of(pageNumber++, REPUBLISH_PAGE_SIZE, Sort.by("id")));
+            long now = System.currentTimeMillis();
+            page.forEach(item -> send(toEvent(item, now)));
+            sent += page.getNumberOfElements();
+        } while (page.hasNext());
+        log.info("Republished stock levels of {} skus", sent);
+        return sent;
+    }
+
+    private static InventoryStockLevelEvent toEvent(InventoryItem item, long now) {
+        return new InventoryStockLevelEvent(item.getSku(), item.getAvailable(), item.getReserved(), now);
+    }
+
+    private void send(InventoryStockLevelEvent event) {
+        try {
+            kafkaTemplate.send(SagaKafkaTopics.INVENTORY_STOCK_LEVELS, event.sku(), event);
+        } catch (Exception e) {
+            log.warn("Failed to publish stock level of sku {}: {}", event.sku(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.inventory.domain.Warehouse;
+import com.ecomm.inventory.dto.response.AllocationResponse;
+import com.ecomm.inventory.metrics.InventoryMetrics;
+import com.ecomm.inventory.repository.AllocatableStock;
+import com.ecomm.inventory.repository.WarehouseRepository;
+import com.ecomm.inventory.repository.WarehouseStockRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits an order's lines across warehouses: as few shipments as possible, then the nearest locations.
+ * <p>
+ * Works on an in-memory index (SKU → locations with stock) rebuilt from warehouse_stock every
+ * {@code inventory.allocation.refresh-interval-ms}, so an allocation touches no database and
+ * stays well under a millisecond for a typical order. The index may trail the tables by one
+ * refresh; the result is a plan, the reservation itself is still checked against inventory_items.
+ * <p>
+ * Held stock is not offered: a location's own reserved units are taken off, and since reservations
+ * are booked per SKU rather than per location, a SKU's locations together never offer more than its
+ * {@code inventory_items.available}. The difference comes off the smallest locations first, which
+ * keeps the large ones able to ship whole lines.
+ * <p>
+ * Greedy set cover: repeatedly take the warehouse that can ship the most remaining lines in full
+ * (one already shipping wins a tie, then the nearer one). Lines no single location can fill are
+ * split nearest-first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarehouseAllocationEngine {
+
+    // Locations without coordinates rank behind every real one
+    private static final double UNKNOWN_DISTANCE_KM = 20_000;
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    private final WarehouseRepository warehouseRepo;
+    private final WarehouseStockRepository stockRepo;
+    private final InventoryMetrics metrics;
+
+    private volatile Index index = new Index(new String[0], new Double[0], new Double[0], Map.of());
+
+    private record Index(String[] codes, Double[] latitudes, Double[] longitudes, Map<String, SkuLocations> skus) {
+    }
+
+    // Parallel arrays: warehouse position in the index and units it can ship
+    private record SkuLocations(int[] warehouses, long[] available) {
+    }
+
+    // ----------------- INDEX -----------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.allocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        try {
+            List<Warehouse> warehouses = warehouseRepo.findByActiveTrue();
+            Map<Long, Integer> positions = new HashMap<>();
+            String[] codes = new String[warehouses.size()];
+            Double[] latitudes = new Double[warehouses.size()];
+            Double[] longitudes = new Double[warehouses.size()];
+            for (int i = 0; i < warehouses.size(); i++) {
+                Warehouse warehouse = warehouses.get(i);
+                positions.put(warehouse.getId(), i);
+                codes[i] = warehouse.getCode();
+                latitudes[i] = warehouse.getLatitude();
+                longitudes[i] = warehouse.getLongitude();
+            }
+
+            Map<String, List<AllocatableStock>> bySku = new LinkedHashMap<>();
+            for (AllocatableStock stock : stockRepo.findAllAllocatable()) {
+                if (positions.containsKey(stock.warehouseId())) {
+                    bySku.computeIfAbsent(stock.sku(), k -> new ArrayList<>()).add(stock);
+                }
+            }
+            Map<String, SkuLocations> skus = new HashMap<>(bySku.size() * 2);
+            bySku.forEach((sku, rows) -> {
+                SkuLocations locations = sellableLocations(rows, positions);
+                if (locations.warehouses().length > 0) {
+                    skus.put(sku, locations);
+                }
+            });
+
+            index = new Index(codes, latitudes, longitudes, skus);
+            log.debug("Allocation index rebuilt: {} warehouses, {} skus", codes.length, skus.size());
+        } catch (Exception e) {
+            log.error("Failed to rebuild allocation index: {}", e.getMessage(), e);
+        }
+    }
+
+    // Free units per location, with whatever exceeds the SKU's sellable total taken off the smallest locations
+    private static SkuLocations sellableLocations(List<AllocatableStock> rows, Map<Long, Integer> positions) {
+        List<AllocatableStock> smallestFirst = new ArrayList<>(rows);
+        smallestFirst.sort(Comparator.comparingLong(AllocatableStock::free));
+        long excess = smallestFirst.stream().mapToLong(AllocatableStock::free).sum() - rows.get(0).sellable();
+
+        List<Integer> at = new ArrayList<>(rows.size());
+        List<Long> available = new ArrayList<>(rows.size());
+        for (AllocatableStock row : smallestFirst) {
+            long held = Math.min(Math.max(excess, 0), row.free());
+            excess -= held;
+            if (row.free() > held) {
+                at.add(positions.get(row.warehouseId()));
+                available.add(row.free() - held);
+            }
+        }
+        return new SkuLocations(at.stream().mapToInt(Integer::intValue).toArray(),
+                available.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    // ----------------- ALLOCATION -----------------
+    public AllocationResponse allocate(Map<String, Long> lines, Double latitude, Double longitude) {
+        Timer.Sample sample = metrics.startTimer();
+        Index snapshot = index;
+        int warehouseCount = snapshot.codes().length;
+
+        double[] distance = new double[warehouseCount];
+        if (latitude != null && longitude != null) {
+            for (int i = 0; i < warehouseCount; i++) {
+                distance[i] = distanceKm(latitude, longitude, snapshot.latitudes()[i], snapshot.longitudes()[i]);
+            }
+        }
+
+        // Whatever no location can ship is reported, the rest is planned
+        Map<String, Long> remaining = new TreeMap<>();
+        Map<String, Long> unallocated = new TreeMap<>();
+        lines.forEach((sku, qty) -> {
+            SkuLocations locations = snapshot.skus().get(sku);
+            long total = 0;
+            if (locations != null) {
+                for (long units : locations.available()) {
+                    total += units;
+                }
+            }
+            if (total < qty) {
+                unallocated.put(sku, qty - total);
+            }
+            if (total > 0) {
+                remaining.put(sku, Math.min(qty, total));
+            }
+        });
+
+        Map<Integer, Map<String, Long>> shipments = new LinkedHashMap<>();
+        int[] covered = new int[warehouseCount];
+        while (!remaining.isEmpty()) {
+            Arrays.fill(covered, 0);
+            remaining.forEach((sku, qty) -> {
+                SkuLocations locations = snapshot.skus().get(sku);
+                for (int i = 0; i < locations.warehouses().length; i++) {
+                    if (locations.available()[i] >= qty) {
+                        covered[locations.warehouses()[i]]++;
+                    }
+                }
+            });
+
+            int best = -1;
+            for (int w = 0; w < warehouseCount; w++) {
+                if (covered[w] > 0 && (best < 0 || better(w, best, covered, shipments, distance))) {
+                    best = w;
+                }
+            }
+
+            if (best >= 0) {
+                int chosen = best;
+                Map<String, Long> shipment = shipments.computeIfAbsent(chosen, k -> new TreeMap<>());
+                remaining.entrySet().removeIf(line -> {
+                    if (units(snapshot.skus().get(line.getKey()), chosen) >= line.getValue()) {
+                        shipment.put(line.getKey(), line.getValue());
+                        return true;
+                    }
+                    return false;
+                });
+            } else {
+                splitLargestLine(snapshot, remaining, shipments, distance);
+            }
+        }
+
+        List<AllocationResponse.Shipment> result = new ArrayList<>(shipments.size());
+        double totalDistance = 0;
+        for (Map.Entry<Integer, Map<String, Long>> shipment : shipments.entrySet()) {
+            double km = distance[shipment.getKey()];
+            totalDistance += km;
+            result.add(new AllocationResponse.Shipment(snapshot.codes()[shipment.getKey()], km, shipment.getValue()));
+        }
+        metrics.allocationFinished(sample);
+        return new AllocationResponse(result, unallocated, totalDistance);
+    }
+
+    // More whole lines first, then a warehouse that already ships, then the nearer one
+    private static boolean better(int candidate, int best, int[] covered,
+                                  Map<Integer, Map<String, Long>> shipments, double[] distance) {
+        if (covered[candidate] != covered[best]) {
+            return covered[candidate] > covered[best];
+        }
+        boolean candidateOpen = shipments.containsKey(candidate);
+        if (candidateOpen != shipments.containsKey(best)) {
+            return candidateOpen;
+        }
+        return distance[candidate] < distance[best];
+    }
+
+    // No location holds any remaining line in full: spread the biggest one, open shipments and nearest first
+    private static void splitLargestLine(Index snapshot, Map<String, Long> remaining,
+                                         Map<Integer, Map<String, Long>> shipments, double[] distance) {
+        Map.Entry<String, Long> largest = remaining.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElseThrow();
+        SkuLocations locations = snapshot.skus().get(largest.getKey());
+
+        List<Integer> order = new ArrayList<>(locations.warehouses().length);
+        for (int i = 0; i < locations.warehouses().length; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer, Boolean>comparing(i -> !shipments.containsKey(locations.warehouses()[i]))
+                .thenComparingDouble(i -> distance[locations.warehouses()[i]]));
+
+        long needed = largest.getValue();
+        for (int i : order) {
+            if (needed == 0) {
+                break;
+            }
+            long take = Math.min(needed, locations.available()[i]);
+            shipments.computeIfAbsent(locations.warehouses()[i], k -> new TreeMap<>()).put(largest.getKey(), take);
+            needed -= take;
+        }
+        remaining.remove(largest.getKey());
+    }
+
+    private static long units(SkuLocations locations, int warehouse) {
+        for (int i = 0; i < locations.warehouses().length; i++) {
+            if (locations.warehouses()[i] == warehouse) {
+                return locations.available()[i];
+            }
+        }
+        return 0;
+    }
+
+    private static double distanceKm(double lat1, double lon1, Double lat2, Double lon2) {
+        if (lat2 == null || lon2 == null) {
+            return UNKNOWN_DISTANCE_KM;
+        }
+        // Haversine
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
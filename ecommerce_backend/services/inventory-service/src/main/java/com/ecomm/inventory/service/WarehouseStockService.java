@@ -0,0 +1,79 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.inventory.domain.Warehouse;
+import com.ecomm.inventory.dto.request.WarehouseStockRequest;
+import com.ecomm.inventory.dto.response.InventoryImportResponse;
+import com.ecomm.inventory.repository.WarehouseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-location stock (warehouse_stock), as counted at each warehouse.
+ * <p>
+ * Sets the on-hand units of a warehouse's SKUs with one batched upsert; the allocation index
+ * picks them up at its next refresh. The SKU totals that reservations are checked against stay in
+ * inventory_items and are changed through adjustments and the bulk import.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarehouseStockService {
+
+    // SKUs inventory does not know are skipped (0 rows); a location's reserved units are left alone
+    private static final String UPSERT_SQL = """
+            insert into warehouse_stock (warehouse_id, sku, available, reserved)
+            select ?, i.sku, ?, 0 from inventory_items i where i.sku = ?
+            on conflict (warehouse_id, sku) do update set available = excluded.available
+            """;
+
+    private static final int REJECTED_SAMPLE_SIZE = 100;
+
+    private final WarehouseRepository warehouseRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate txTemplate;
+
+    public InventoryImportResponse upsert(String warehouseCode, WarehouseStockRequest request, String actorUserId) {
+        Warehouse warehouse = warehouseRepo.findByCode(warehouseCode)
+                .orElseThrow(() -> new RuntimeException("Warehouse not found: " + warehouseCode));
+
+        // Last line of a SKU wins, in SKU order so concurrent syncs lock rows in the same order
+        Map<String, Long> onHand = new TreeMap<>();
+        request.lines().forEach(line -> onHand.put(line.sku(), line.onHand()));
+        List<Map.Entry<String, Long>> lines = new ArrayList<>(onHand.entrySet());
+
+        int[][] counts = txTemplate.execute(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, lines, lines.size(),
+                (ps, line) -> {
+                    ps.setLong(1, warehouse.getId());
+                    ps.setLong(2, line.getValue());
+                    ps.setString(3, line.getKey());
+                }));
+
+        long applied = 0;
+        List<String> rejected = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                String sku = lines.get(i++).getKey();
+                if (count == 0) {
+                    if (rejected.size() < REJECTED_SAMPLE_SIZE) {
+                        rejected.add(sku + ": unknown SKU");
+                    }
+                } else {
+                    applied++;
+                }
+            }
+        }
+
+        log.info("Warehouse {} stock set by user {}: lines={}, applied={}, rejected={}",
+                warehouseCode, actorUserId, lines.size(), applied, lines.size() - applied);
+        return new InventoryImportResponse(request.lines().size(), applied, lines.size() - applied, rejected);
+    }
+}
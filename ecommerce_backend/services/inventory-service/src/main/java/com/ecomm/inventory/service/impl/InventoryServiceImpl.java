@@ -2,28 +2,61 @@ package com.ecomm.inventory.service.impl;
 
 import com.ecomm.events.order.OrderItemPayload;
 import com.ecomm.inventory.domain.InventoryItem;
+import com.ecomm.inventory.domain.InventoryReservation;
+import com.ecomm.inventory.domain.ReservationStatus;
 import com.ecomm.inventory.dto.request.InventoryAdjustmentRequest;
 import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.metrics.InventoryMetrics;
 import com.ecomm.inventory.repository.InventoryRepository;
+import com.ecomm.inventory.repository.InventoryReservationRepository;
+import com.ecomm.inventory.service.HotSkuReservationEngine;
 import com.ecomm.inventory.service.InventoryService;
+import com.ecomm.inventory.service.InventoryStockCache;
 import com.ecomm.inventory.service.InventoryUpdatePublisher;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.backend", havingValue = "db", matchIfMissing = true)
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository repo;
+    private final InventoryReservationRepository reservationRepo;
     private final InventoryUpdatePublisher updatePublisher;
+    private final CacheManager cacheManager;
+    private final HotSkuReservationEngine hotSkuEngine;
+    private final InventoryStockCache stockCache;
+    private final InventoryMetrics metrics;
+
+    // How long a saga may sit between the inventory and payment steps before its holds are swept
+    @Value("${inventory.reservation.hold-ttl:PT15M}")
+    private Duration holdTtl;
 
     // ----------------- READ (CACHED via Redis) -----------------
     @Override
@@ -34,6 +67,11 @@ public class InventoryServiceImpl implements InventoryService {
         return new InventoryResponse(item.getSku(), item.getAvailable(), item.getReserved());
     }
 
+    @Override
+    public List<InventoryResponse> getBySkus(List<String> skus) {
+        return new ArrayList<>(stockCache.getAll(skus).values());
+    }
+
     // ----------------- ADMIN / SELLER STOCK ADJUSTMENT -----------------
     @Override
     @Transactional
@@ -49,11 +87,12 @@ public class InventoryServiceImpl implements InventoryService {
 
         item.setAvailable(newAvailable);
         repo.save(item);
+        metrics.skuUpdated(item.getSku());
 
         InventoryResponse response = new InventoryResponse(item.getSku(), item.getAvailable(), item.getReserved());
 
-        // Notify dashboards via WebSocket asynchronously
-        notifyAsync(response);
+        // Published with the next conflated batch once this adjustment has committed
+        updatePublisher.publishChanged(List.of(item.getSku()));
 
         log.info("Inventory adjusted by user {} for sku {}: delta={}, newAvailable={}",
                 actorUserId, item.getSku(), request.dataAvailable(), newAvailable);
@@ -61,60 +100,229 @@ public class InventoryServiceImpl implements InventoryService {
         return response;
     }
 
-    // WebSocket notification using @Async
-    @Async
-    protected void notifyAsync(InventoryResponse response) {
-        updatePublisher.publishUpdate(response);
-    }
-
     // ----------------- SAGA: RESERVE STOCK (called by Kafka handler) ----
     @Override
     @Transactional
     public boolean reserveForOrder(Long orderId, List<OrderItemPayload> payload) {
+        Timer.Sample sample = metrics.startTimer();
+        boolean reserved = reserve(orderId, payload);
+        metrics.reservationFinished(sample, reserved ? InventoryMetrics.RESERVED : InventoryMetrics.REJECTED);
+        return reserved;
+    }
+
+    private boolean reserve(Long orderId, List<OrderItemPayload> payload) {
         try {
-            // 1) Validation pass
+            // 0) Redelivered saga start: the ledger already knows this order
+            if (reservationRepo.existsByOrderId(orderId)) {
+                boolean held = reservationRepo.existsByOrderIdAndStatus(orderId, ReservationStatus.HELD);
+                log.info("Order {} already has reservations in the ledger (held={}), skipping", orderId, held);
+                return held;
+            }
+
+            // 1) Collapse duplicate lines per SKU; sorted so concurrent orders lock rows in the same order
+            Map<String, Long> quantities = new TreeMap<>();
             for (OrderItemPayload line : payload) {
-                String sku = line.sku();        // adjust getter name if different
-                int qty = line.quantity();      // adjust getter name if different
+                if (line.sku() == null || line.quantity() <= 0) {
+                    log.warn("Invalid line in order {}: sku={}, qty={}", orderId, line.sku(), line.quantity());
+                    metrics.rejected("invalid_line");
+                    return false;
+                }
+                quantities.merge(line.sku(), (long) line.quantity(), Long::sum);
+            }
+            if (quantities.isEmpty()) {
+                return true;
+            }
 
-                InventoryItem item = repo.findBySku(sku)
-                        .orElseThrow(() -> new RuntimeException("Unknown SKU: " + sku));
-                if (item.getAvailable() < qty) {
+            // 2) Flash-sale SKUs are admitted from memory; the rest go through the row updates below
+            hotSkuEngine.recordDemand(quantities.keySet());
+            Map<String, Long> hot = new TreeMap<>();
+            Map<String, Long> cold = new TreeMap<>();
+            quantities.forEach((sku, qty) -> (hotSkuEngine.isHot(sku) ? hot : cold).put(sku, qty));
+
+            // 3) Validation pass: one query for all SKUs, fail fast before taking any row lock
+            Map<String, InventoryItem> items = cold.isEmpty() ? Map.of()
+                    : repo.findAllBySkuIn(cold.keySet()).stream()
+                    .collect(Collectors.toMap(InventoryItem::getSku, Function.identity()));
+
+            for (Map.Entry<String, Long> line : cold.entrySet()) {
+                InventoryItem item = items.get(line.getKey());
+                if (item == null) {
+                    log.warn("Unknown SKU in order {}: {}", orderId, line.getKey());
+                    metrics.rejected("unknown_sku");
+                    return false;
+                }
+                if (item.getAvailable() < line.getValue()) {
                     log.warn("Insufficient stock for order {} sku {}: requested={}, available={}",
-                            orderId, sku, qty, item.getAvailable());
+                            orderId, line.getKey(), line.getValue(), item.getAvailable());
+                    metrics.rejected("out_of_stock");
                     return false;
                 }
             }
 
-            // 2) Reserve pass
-            for (OrderItemPayload line : payload) {
-                String sku = line.sku();
-                int qty = line.quantity();
+            if (!hot.isEmpty() && !hotSkuEngine.tryAcquire(hot)) {
+                log.warn("Insufficient stock for order {} on hot skus {}", orderId, hot.keySet());
+                metrics.rejected("out_of_stock");
+                return false;
+            }
 
-                InventoryItem item = repo.findBySku(sku).orElseThrow();
-                item.setAvailable(item.getAvailable() - qty);
-                item.setReserved(item.getReserved() + qty);
-                repo.save(item);
+            // 4) Reserve pass: conditional UPDATE per SKU (available >= qty).
+            //    If a concurrent order won the race, undo what we applied so the order is all-or-nothing.
+            List<Map.Entry<String, Long>> applied = new ArrayList<>(cold.size());
+            for (Map.Entry<String, Long> line : cold.entrySet()) {
+                if (repo.reserveStock(line.getKey(), line.getValue()) == 0) {
+                    log.warn("Stock for sku {} was taken concurrently, rejecting order {}", line.getKey(), orderId);
+                    metrics.skuContended(line.getKey());
+                    applied.forEach(a -> repo.unreserveStock(a.getKey(), a.getValue()));
+                    hotSkuEngine.giveBack(hot);
+                    return false;
+                }
+                applied.add(line);
+            }
+
+            // 5) Record every hold so compensation knows what to give back;
+            //    hot holds stay pending until the engine writes them back
+            Instant now = Instant.now();
+            Instant expiresAt = now.plus(holdTtl);
+            reservationRepo.saveAll(quantities.entrySet().stream()
+                    .map(line -> InventoryReservation.builder()
+                            .orderId(orderId)
+                            .sku(line.getKey())
+                            .quantity(line.getValue())
+                            .status(ReservationStatus.HELD)
+                            .createdAt(now)
+                            .expiresAt(expiresAt)
+                            .pending(hot.containsKey(line.getKey()))
+                            .build())
+                    .toList());
+            quantities.keySet().forEach(metrics::skuUpdated);
 
-                // evict cache & notify websocket
-                InventoryResponse response = new InventoryResponse(item.getSku(), item.getAvailable(), item.getReserved());
-                updatePublisher.publishUpdate(response);
+            // 6) Cache eviction & websocket, published once committed (hot skus are published by the write-back)
+            if (!cold.isEmpty()) {
+                notifyChanged(cold.keySet());
             }
 
-            log.info("Inventory reserved for order {}", orderId);
+            log.info("Inventory reserved for order {} ({} skus)", orderId, quantities.size());
             return true;
 
         } catch (Exception e) {
+            // Unexpected DB error: don't commit a partially applied reservation
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             log.error("Error reserving stock for order {}: {}", orderId, e.getMessage(), e);
+            metrics.rejected("error");
             return false;
         }
     }
 
+    private void notifyChanged(Collection<String> skus) {
+        Cache cache = cacheManager.getCache("inventory");
+        if (cache != null) {
+            skus.forEach(cache::evict);
+        }
+        updatePublisher.publishChanged(skus);
+    }
+
     // ----------------- SAGA: RELEASE STOCK (compensation) ---------------
     @Override
     @Transactional
     public void releaseForOrder(Long orderId) {
-        // NOTE: This is a placeholder; proper implementation requires tracking per-order reservations.
-        log.info("Releasing stock for order {} (compensation TODO: implement with audit/reservation table)", orderId);
+        // Locks the order's HELD rows; a concurrent or repeated release finds nothing and is a no-op
+        List<InventoryReservation> holds = reservationRepo.findByOrderIdAndStatus(orderId, ReservationStatus.HELD);
+        if (holds.isEmpty()) {
+            log.info("No held stock for order {}, nothing to release", orderId);
+            return;
+        }
+
+        Set<String> skus = new TreeSet<>();
+        holds.stream()
+                .sorted(Comparator.comparing(InventoryReservation::getSku))
+                .forEach(hold -> {
+                    if (hold.isPending()) {
+                        // Never reached inventory_items: only the in-memory counter gets it back
+                        hotSkuEngine.giveBackAfterCommit(hold.getSku(), hold.getQuantity());
+                    } else if (repo.unreserveStock(hold.getSku(), hold.getQuantity()) == 0) {
+                        log.error("Reserved stock for sku {} is below hold {} of order {}",
+                                hold.getSku(), hold.getQuantity(), orderId);
+                    }
+                    skus.add(hold.getSku());
+                    metrics.skuUpdated(hold.getSku());
+                });
+
+        int released = reservationRepo.markReleased(orderId, Instant.now());
+
+        notifyChanged(skus);
+        log.info("Released {} holds for order {}", released, orderId);
+    }
+
+    // ----------------- SAGA: CONFIRM STOCK (payment done) ---------------
+    @Override
+    @Transactional
+    public boolean confirmForOrder(Long orderId) {
+        int confirmed = reservationRepo.markConfirmed(orderId);
+
+        // Payment came after the sweeper (possibly for part of the order's holds): take the stock again
+        List<InventoryReservation> expired = reservationRepo.findByOrderIdAndStatus(orderId, ReservationStatus.EXPIRED);
+        if (expired.isEmpty()) {
+            if (confirmed == 0) {
+                boolean kept = reservationRepo.existsByOrderIdAndStatus(orderId, ReservationStatus.CONFIRMED);
+                log.warn("No held stock to confirm for order {} (already confirmed={})", orderId, kept);
+                return kept;
+            }
+            log.info("Confirmed {} holds for order {}", confirmed, orderId);
+            return true;
+        }
+
+        Map<String, Long> perSku = new TreeMap<>();
+        expired.forEach(hold -> perSku.merge(hold.getSku(), hold.getQuantity(), Long::sum));
+        for (Map.Entry<String, Long> line : perSku.entrySet()) {
+            if (repo.reserveStock(line.getKey(), line.getValue()) == 0) {
+                // Sold meanwhile: undo the whole confirm, the remaining holds expire as usual
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                log.warn("Holds of order {} expired before payment and sku {} is sold out, cannot confirm",
+                        orderId, line.getKey());
+                return false;
+            }
+            metrics.skuUpdated(line.getKey());
+        }
+        int reconfirmed = reservationRepo.markReconfirmed(expired.stream().map(InventoryReservation::getId).toList());
+
+        notifyChanged(perSku.keySet());
+        log.info("Confirmed {} holds and re-reserved {} expired holds for order {}", confirmed, reconfirmed, orderId);
+        return true;
+    }
+
+    // ----------------- EXPIRY SWEEPER (one batch per transaction) -------
+    @Override
+    @Transactional
+    public int releaseExpiredHolds(int batchSize) {
+        Instant now = Instant.now();
+        List<InventoryReservation> expired = reservationRepo.lockExpiredHolds(now, PageRequest.of(0, batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        // One guarded update per SKU for the whole batch, in SKU order
+        Map<String, Long> perSku = new TreeMap<>();
+        expired.forEach(hold -> {
+            metrics.skuUpdated(hold.getSku());
+            if (hold.isPending()) {
+                hotSkuEngine.giveBackAfterCommit(hold.getSku(), hold.getQuantity());
+            } else {
+                perSku.merge(hold.getSku(), hold.getQuantity(), Long::sum);
+            }
+        });
+        perSku.forEach((sku, qty) -> {
+            if (repo.unreserveStock(sku, qty) == 0) {
+                log.error("Reserved stock for sku {} is below expired holds total {}", sku, qty);
+            }
+        });
+
+        int count = reservationRepo.markExpired(
+                expired.stream().map(InventoryReservation::getId).toList(), now);
+
+        if (!perSku.isEmpty()) {
+            notifyChanged(perSku.keySet());
+        }
+        log.info("Expired {} holds across {} skus", count, perSku.size());
+        return expired.size();
     }
 }
@@ -0,0 +1,325 @@
+package com.ecomm.inventory.service.impl;
+
+import com.ecomm.events.order.OrderItemPayload;
+import com.ecomm.inventory.domain.InventoryItem;
+import com.ecomm.inventory.dto.request.InventoryAdjustmentRequest;
+import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.metrics.InventoryMetrics;
+import com.ecomm.inventory.repository.InventoryRepository;
+import com.ecomm.inventory.service.InventoryService;
+import com.ecomm.inventory.service.InventoryUpdatePublisher;
+import com.ecomm.inventory.service.RedisInventoryKeys;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inventory backend with the stock counters in Redis (inventory.backend=redis).
+ * <p>
+ * A whole order is checked and reserved by one Lua script, so no row lock is taken on the hot path.
+ * Every change is appended to a Redis stream that {@link com.ecomm.inventory.service.RedisStockDeltaApplier}
+ * writes behind to inventory_items. A SKU's counters are loaded from Postgres the first time it is touched.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.backend", havingValue = "redis")
+public class RedisInventoryService implements InventoryService {
+
+    private final StringRedisTemplate redis;
+    private final RedisInventoryKeys keys;
+    private final InventoryRepository repo;
+    private final InventoryUpdatePublisher updatePublisher;
+    private final InventoryMetrics metrics;
+
+    private final RedisScript<Long> reserveStockScript;
+    private final RedisScript<Long> releaseStockScript;
+    private final RedisScript<Long> confirmStockScript;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> adjustStockScript;
+    private final RedisScript<Long> seedStockScript;
+
+    @Value("${inventory.reservation.hold-ttl:PT15M}")
+    private Duration holdTtl;
+
+    // How long finished holds are kept to answer redelivered saga commands
+    @Value("${inventory.redis.hold-retention:P7D}")
+    private Duration holdRetention;
+
+    // ----------------- READ (straight from Redis) -----------------
+    @Override
+    public InventoryResponse getBySku(String sku) {
+        List<Object> values = redis.opsForHash().multiGet(keys.stock(sku), List.of("available", "reserved"));
+        if (values.get(0) == null) {
+            InventoryItem item = load(sku);
+            if (item == null) {
+                throw new RuntimeException("SKU not found: " + sku);
+            }
+            return new InventoryResponse(item.getSku(), item.getAvailable(), item.getReserved());
+        }
+        return new InventoryResponse(sku, Long.parseLong((String) values.get(0)), Long.parseLong((String) values.get(1)));
+    }
+
+    @Override
+    public List<InventoryResponse> getBySkus(List<String> skus) {
+        List<String> distinct = skus.stream().distinct().toList();
+        List<Object> rows = redis.executePipelined((RedisCallback<Object>) connection -> {
+            distinct.forEach(sku -> connection.hashCommands().hMGet(
+                    keys.stock(sku).getBytes(StandardCharsets.UTF_8),
+                    "available".getBytes(StandardCharsets.UTF_8),
+                    "reserved".getBytes(StandardCharsets.UTF_8)));
+            return null;
+        });
+
+        Map<String, InventoryResponse> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            List<?> values = (List<?>) rows.get(i);
+            if (values == null || values.get(0) == null) {
+                misses.add(distinct.get(i));
+                result.put(distinct.get(i), null);
+            } else {
+                result.put(distinct.get(i), new InventoryResponse(distinct.get(i),
+                        Long.parseLong((String) values.get(0)), Long.parseLong((String) values.get(1))));
+            }
+        }
+        // Not loaded into Redis yet: seed them from one query
+        if (!misses.isEmpty()) {
+            repo.findAllBySkuIn(misses).forEach(item -> {
+                seed(item);
+                result.put(item.getSku(), new InventoryResponse(item.getSku(), item.getAvailable(), item.getReserved()));
+            });
+        }
+        result.values().removeIf(Objects::isNull);
+        return new ArrayList<>(result.values());
+    }
+
+    // ----------------- ADMIN / SELLER STOCK ADJUSTMENT -----------------
+    @Override
+    public InventoryResponse adjustStock(InventoryAdjustmentRequest request, String actorUserId) {
+        List<?> result = adjust(request);
+        if (toLong(result.get(0)) == -1) {
+            if (load(request.sku()) == null) {
+                throw new RuntimeException("SKU not found: " + request.sku());
+            }
+            result = adjust(request);
+        }
+        if (toLong(result.get(0)) == -2) {
+            throw new IllegalArgumentException("Resulting stock cannot be negative");
+        }
+
+        InventoryResponse response = new InventoryResponse(request.sku(), toLong(result.get(0)), toLong(result.get(1)));
+        metrics.skuUpdated(request.sku());
+        updatePublisher.publishUpdate(response);
+
+        log.info("Inventory adjusted by user {} for sku {}: delta={}, newAvailable={}",
+                actorUserId, request.sku(), request.dataAvailable(), response.available());
+        return response;
+    }
+
+    private List<?> adjust(InventoryAdjustmentRequest request) {
+        return redis.execute(adjustStockScript,
+                List.of(keys.stock(request.sku()), keys.deltas()),
+                request.sku(), String.valueOf(request.dataAvailable()));
+    }
+
+    // ----------------- SAGA: RESERVE STOCK -----------------
+    @Override
+    public boolean reserveForOrder(Long orderId, List<OrderItemPayload> payload) {
+        Timer.Sample sample = metrics.startTimer();
+        boolean reserved = reserveLines(orderId, payload);
+        metrics.reservationFinished(sample, reserved ? InventoryMetrics.RESERVED : InventoryMetrics.REJECTED);
+        return reserved;
+    }
+
+    private boolean reserveLines(Long orderId, List<OrderItemPayload> payload) {
+        Map<String, Long> quantities = new TreeMap<>();
+        for (OrderItemPayload line : payload) {
+            if (line.sku() == null || line.quantity() <= 0) {
+                log.warn("Invalid line in order {}: sku={}, qty={}", orderId, line.sku(), line.quantity());
+                metrics.rejected("invalid_line");
+                return false;
+            }
+            quantities.merge(line.sku(), (long) line.quantity(), Long::sum);
+        }
+        if (quantities.isEmpty()) {
+            return true;
+        }
+
+        try {
+            long result = reserve(orderId, quantities);
+            // Some SKUs were never loaded into Redis: load them and try once more
+            if (result < 0) {
+                for (String sku : quantities.keySet()) {
+                    if (!Boolean.TRUE.equals(redis.hasKey(keys.stock(sku))) && load(sku) == null) {
+                        log.warn("Unknown SKU in order {}: {}", orderId, sku);
+                        metrics.rejected("unknown_sku");
+                        return false;
+                    }
+                }
+                result = reserve(orderId, quantities);
+            }
+
+            if (result != 1) {
+                log.warn("Insufficient stock for order {} (skus={})", orderId, quantities.keySet());
+                metrics.rejected("out_of_stock");
+                return false;
+            }
+            quantities.keySet().forEach(metrics::skuUpdated);
+            log.info("Inventory reserved in Redis for order {} ({} skus)", orderId, quantities.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Error reserving stock for order {}: {}", orderId, e.getMessage(), e);
+            metrics.rejected("error");
+            return false;
+        }
+    }
+
+    private long reserve(Long orderId, Map<String, Long> quantities) {
+        List<String> scriptKeys = new ArrayList<>(quantities.size() + 3);
+        scriptKeys.add(keys.hold(orderId));
+        scriptKeys.add(keys.holdExpiry());
+        scriptKeys.add(keys.deltas());
+
+        List<String> args = new ArrayList<>(quantities.size() * 2 + 2);
+        args.add(String.valueOf(orderId));
+        args.add(String.valueOf(Instant.now().plus(holdTtl).toEpochMilli()));
+        quantities.forEach((sku, qty) -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+            args.add(String.valueOf(qty));
+        });
+
+        Long result = redis.execute(reserveStockScript, scriptKeys, args.toArray());
+        return result == null ? 0 : result;
+    }
+
+    // ----------------- SAGA: RELEASE / CONFIRM -----------------
+    @Override
+    public void releaseForOrder(Long orderId) {
+        long released = release(orderId, "RELEASED");
+        if (released == 0) {
+            log.info("No held stock for order {}, nothing to release", orderId);
+            return;
+        }
+        log.info("Released {} holds for order {}", released, orderId);
+    }
+
+    @Override
+    public boolean confirmForOrder(Long orderId) {
+        // Same layout as release: an expired hold is re-reserved from its own lines
+        List<String> scriptKeys = new ArrayList<>();
+        scriptKeys.add(keys.hold(orderId));
+        scriptKeys.add(keys.holdExpiry());
+        scriptKeys.add(keys.deltas());
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(orderId));
+        args.add(String.valueOf(holdRetention.toSeconds()));
+        holdLines(orderId).forEach(sku -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+        });
+
+        Long confirmed = redis.execute(confirmStockScript, scriptKeys, args.toArray());
+        if (confirmed != null && confirmed < 0) {
+            throw new IllegalStateException("Hold lines of order " + orderId + " changed during confirm");
+        }
+        if (confirmed == null || confirmed == 0) {
+            log.warn("No stock left to confirm for order {} (released, or expired and sold meanwhile)", orderId);
+            return false;
+        }
+        if (confirmed == 2) {
+            log.info("Re-reserved and confirmed expired holds for order {}", orderId);
+        } else if (confirmed == 3) {
+            log.info("Holds of order {} already confirmed", orderId);
+        } else {
+            log.info("Confirmed holds for order {}", orderId);
+        }
+        return true;
+    }
+
+    // ----------------- EXPIRY SWEEPER -----------------
+    @Override
+    public int releaseExpiredHolds(int batchSize) {
+        Set<String> expired = redis.opsForZSet()
+                .rangeByScore(keys.holdExpiry(), 0, System.currentTimeMillis(), 0, batchSize);
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+        // The script re-checks the status, so a hold confirmed or released meanwhile is left alone
+        expired.forEach(orderId -> release(Long.valueOf(orderId), "EXPIRED"));
+        log.info("Expired {} holds in Redis", expired.size());
+        return expired.size();
+    }
+
+    private long release(Long orderId, String finalStatus) {
+        // Every key the script touches is declared: the hold's lines are read first and passed in
+        List<String> scriptKeys = new ArrayList<>();
+        scriptKeys.add(keys.hold(orderId));
+        scriptKeys.add(keys.holdExpiry());
+        scriptKeys.add(keys.deltas());
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(orderId));
+        args.add(finalStatus);
+        args.add(String.valueOf(holdRetention.toSeconds()));
+        holdLines(orderId).forEach(sku -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+        });
+
+        Long released = redis.execute(releaseStockScript, scriptKeys, args.toArray());
+        if (released != null && released < 0) {
+            // Only possible if the hold was (re)written between the read and the script; nothing was changed
+            throw new IllegalStateException("Hold lines of order " + orderId + " changed during release");
+        }
+        return released == null ? 0 : released;
+    }
+
+    // SKUs of a hold, sorted; fields starting with '_' are the hold's own metadata
+    private List<String> holdLines(Long orderId) {
+        return redis.opsForHash().keys(keys.hold(orderId)).stream()
+                .map(String::valueOf)
+                .filter(field -> !field.startsWith("_"))
+                .sorted()
+                .toList();
+    }
+
+    // ----------------- LOADING -----------------
+
+    // Seeds Redis from Postgres; another node may have won the race, which is fine
+    private InventoryItem load(String sku) {
+        InventoryItem item = repo.findBySku(sku).orElse(null);
+        if (item != null) {
+            seed(item);
+        }
+        return item;
+    }
+
+    private void seed(InventoryItem item) {
+        redis.execute(seedStockScript, List.of(keys.stock(item.getSku())),
+                String.valueOf(item.getAvailable()), String.valueOf(item.getReserved()));
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+}
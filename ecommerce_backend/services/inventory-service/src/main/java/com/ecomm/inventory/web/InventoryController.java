@@ -1,8 +1,18 @@
 package com.ecomm.inventory.web;
 
+import com.ecomm.events.order.OrderItemPayload;
+import com.ecomm.inventory.dto.request.AllocationRequest;
 import com.ecomm.inventory.dto.request.InventoryAdjustmentRequest;
+import com.ecomm.inventory.dto.request.WarehouseStockRequest;
+import com.ecomm.inventory.dto.response.AllocationResponse;
+import com.ecomm.inventory.dto.response.InventoryImportResponse;
 import com.ecomm.inventory.dto.response.InventoryResponse;
+import com.ecomm.inventory.service.HotSkuReservationEngine;
+import com.ecomm.inventory.service.InventoryImportService;
 import com.ecomm.inventory.service.InventoryService;
+import com.ecomm.inventory.service.StockLevelPublisher;
+import com.ecomm.inventory.service.WarehouseAllocationEngine;
+import com.ecomm.inventory.service.WarehouseStockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +21,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 @Tag(name = "Inventory", description = "Stock tracking and adjustments")
 @RestController
 @RequestMapping("/inventory")   // exposed via gateway as /api/inventory/**
@@ -23,6 +42,14 @@ import org.springframework.web.bind.annotation.*;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final HotSkuReservationEngine hotSkuEngine;
+    private final InventoryImportService importService;
+    private final StockLevelPublisher stockLevelPublisher;
+    private final WarehouseAllocationEngine allocationEngine;
+    private final WarehouseStockService warehouseStockService;
+
+    @Value("${inventory.batch.max-skus:500}")
+    private int maxBatchSkus;
 
     @Operation(
             summary = "Get stock for a product",
@@ -41,6 +68,22 @@ public class InventoryController {
         return inventoryService.getBySku(sku);
     }
 
+    @Operation(
+            summary = "Get stock for many products",
+            description = "Batch variant of GET /inventory/{sku} for listing pages and carts. Unknown SKUs are left out of the result.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stock info in request order"),
+                    @ApiResponse(responseCode = "400", description = "Too many SKUs")
+            }
+    )
+    @PostMapping("/batch")
+    public List<InventoryResponse> getStockBatch(@RequestBody List<String> skus) {
+        if (skus.size() > maxBatchSkus) {
+            throw new IllegalArgumentException("At most " + maxBatchSkus + " SKUs per batch");
+        }
+        return inventoryService.getBySkus(skus);
+    }
+
     @Operation(
             summary = "Adjust stock for a product",
             description = "Admin/Seller stock adjustment. Positive delta increases available stock, negative delta decreases it.",
@@ -60,6 +103,104 @@ public class InventoryController {
         return inventoryService.adjustStock(request, actorUserId);
     }
 
+    @Operation(
+            summary = "List hot SKUs",
+            description = "SKUs admitted from memory by the flash-sale engine, with the units each can still admit."
+    )
+    @GetMapping("/hot-skus")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Long> getHotSkus() {
+        return hotSkuEngine.snapshot();
+    }
+
+    @Operation(
+            summary = "Promote SKUs to hot",
+            description = "Moves the given SKUs onto the in-memory reservation path for a sale. Requires inventory.hot-sku.enabled.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Current hot SKUs"),
+                    @ApiResponse(responseCode = "500", description = "Engine disabled")
+            }
+    )
+    @PostMapping("/hot-skus")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Long> promoteHotSkus(@RequestBody List<String> skus) {
+        skus.forEach(hotSkuEngine::promote);
+        return hotSkuEngine.snapshot();
+    }
+
+    @Operation(
+            summary = "Bulk stock import",
+            description = "Streams a CSV (sku,delta per line) or NDJSON ({\"sku\":..,\"delta\":..} per line) body and applies "
+                    + "the deltas in chunks. Lines with unknown SKUs or that would make stock negative are rejected and counted.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import summary",
+                            content = @Content(schema = @Schema(implementation = InventoryImportResponse.class)))
+            }
+    )
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public InventoryImportResponse importStock(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        String actorUserId = getCurrentUserId();
+        if (MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            return importService.importCsv(body, actorUserId);
+        }
+        return importService.importNdjson(body, actorUserId);
+    }
+
+    @Operation(
+            summary = "Set stock at a warehouse",
+            description = "Replaces the on-hand units of the given SKUs at one warehouse (per-location stock used by "
+                    + "allocation). SKUs unknown to inventory are rejected and counted. SKU totals are not changed.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Upsert summary",
+                            content = @Content(schema = @Schema(implementation = InventoryImportResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid line"),
+                    @ApiResponse(responseCode = "404", description = "Warehouse not found")
+            }
+    )
+    @PutMapping("/warehouses/{code}/stock")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public InventoryImportResponse setWarehouseStock(@PathVariable String code,
+                                                     @Valid @RequestBody WarehouseStockRequest request) {
+        return warehouseStockService.upsert(code, request, getCurrentUserId());
+    }
+
+    @Operation(
+            summary = "Preview warehouse allocation",
+            description = "Splits the order lines across warehouses with as few shipments as possible, nearest locations first "
+                    + "when a destination is given. Nothing is reserved.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Shipments per warehouse and units no location can ship",
+                            content = @Content(schema = @Schema(implementation = AllocationResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid line")
+            }
+    )
+    @PostMapping("/allocations/preview")
+    public AllocationResponse previewAllocation(@Valid @RequestBody AllocationRequest request) {
+        Map<String, Long> lines = new TreeMap<>();
+        for (OrderItemPayload item : request.items()) {
+            if (item.sku() == null || item.quantity() <= 0) {
+                throw new IllegalArgumentException("Invalid line: sku=" + item.sku() + ", qty=" + item.quantity());
+            }
+            lines.merge(item.sku(), (long) item.quantity(), Long::sum);
+        }
+        return allocationEngine.allocate(lines, request.latitude(), request.longitude());
+    }
+
+    @Operation(
+            summary = "Republish stock levels",
+            description = "Sends the current level of every SKU to the compacted stock-level topic, "
+                    + "e.g. to seed product-service's search projection. Returns the number of SKUs sent."
+    )
+    @PostMapping("/stock-levels/republish")
+    @PreAuthorize("hasRole('ADMIN')")
+    public long republishStockLevels() {
+        return stockLevelPublisher.republishAll();
+    }
+
     // Helper to read authenticated user ID (e.g. subject from JWT)
     private String getCurrentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
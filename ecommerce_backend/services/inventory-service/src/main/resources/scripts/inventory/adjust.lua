@@ -0,0 +1,11 @@
+-- Admin/seller stock adjustment.
+-- KEYS[1] stock hash, KEYS[2] delta stream
+-- ARGV[1] sku, ARGV[2] delta
+-- Returns {available, reserved}, {-1} when not loaded, {-2} when the result would be negative
+local available = redis.call('HGET', KEYS[1], 'available')
+if not available then return {-1} end
+local result = tonumber(available) + tonumber(ARGV[2])
+if result < 0 then return {-2} end
+redis.call('HSET', KEYS[1], 'available', result)
+redis.call('XADD', KEYS[2], '*', 'sku', ARGV[1], 'available', ARGV[2], 'reserved', 0)
+return {result, tonumber(redis.call('HGET', KEYS[1], 'reserved'))}
@@ -0,0 +1,38 @@
+-- Payment done: the hold stops expiring. A hold the sweeper expired before the payment arrived
+-- is taken again, all lines or none, if the stock is still there.
+-- KEYS[1] hold hash, KEYS[2] expiry zset, KEYS[3] delta stream, KEYS[4..] stock hashes (one per line)
+-- ARGV[1] order id, ARGV[2] hold retention (seconds), ARGV[3..] skus in the same order as the stock keys
+-- The lines are only needed for an expired hold; the caller reads them up front as for release.lua.
+-- Returns 1 confirmed, 2 expired hold re-reserved and confirmed, 3 already confirmed,
+-- 0 nothing to confirm (released, unknown, or expired and out of stock),
+-- -1 when the caller's lines do not match the hold
+local status = redis.call('HGET', KEYS[1], '_status')
+if status == 'CONFIRMED' then return 3 end
+
+if status == 'EXPIRED' then
+    local lines = #KEYS - 3
+    if lines ~= redis.call('HLEN', KEYS[1]) - 1 then return -1 end
+    for i = 1, lines do
+        local qty = redis.call('HGET', KEYS[1], ARGV[2 + i])
+        if not qty then return -1 end
+        local available = redis.call('HGET', KEYS[i + 3], 'available')
+        if not available or tonumber(available) < tonumber(qty) then return 0 end
+    end
+
+    for i = 1, lines do
+        local sku = ARGV[2 + i]
+        local qty = tonumber(redis.call('HGET', KEYS[1], sku))
+        redis.call('HINCRBY', KEYS[i + 3], 'available', -qty)
+        redis.call('HINCRBY', KEYS[i + 3], 'reserved', qty)
+        redis.call('XADD', KEYS[3], '*', 'sku', sku, 'available', -qty, 'reserved', qty)
+    end
+    redis.call('HSET', KEYS[1], '_status', 'CONFIRMED')
+    redis.call('EXPIRE', KEYS[1], ARGV[2])
+    return 2
+end
+
+if status ~= 'HELD' then return 0 end
+redis.call('HSET', KEYS[1], '_status', 'CONFIRMED')
+redis.call('ZREM', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+return 1
@@ -0,0 +1,29 @@
+-- Gives a held order's stock back. A hold that is not HELD any more is left alone,
+-- so repeated releases and a release racing the expiry sweeper are no-ops.
+-- KEYS[1] hold hash, KEYS[2] expiry zset, KEYS[3] delta stream, KEYS[4..] stock hashes (one per line)
+-- ARGV[1] order id, ARGV[2] final status (RELEASED / EXPIRED), ARGV[3] hold retention (seconds),
+-- ARGV[4..] skus in the same order as the stock keys
+-- A hold's lines never change after reserve.lua wrote them, so the caller reads them up front.
+-- Returns the number of lines given back, -1 when the caller's lines do not match the hold
+if redis.call('HGET', KEYS[1], '_status') ~= 'HELD' then
+    redis.call('ZREM', KEYS[2], ARGV[1])
+    return 0
+end
+
+local lines = #KEYS - 3
+if lines ~= redis.call('HLEN', KEYS[1]) - 1 then return -1 end
+for i = 1, lines do
+    if not redis.call('HGET', KEYS[1], ARGV[3 + i]) then return -1 end
+end
+
+for i = 1, lines do
+    local sku = ARGV[3 + i]
+    local qty = tonumber(redis.call('HGET', KEYS[1], sku))
+    redis.call('HINCRBY', KEYS[i + 3], 'available', qty)
+    redis.call('HINCRBY', KEYS[i + 3], 'reserved', -qty)
+    redis.call('XADD', KEYS[3], '*', 'sku', sku, 'available', qty, 'reserved', -qty)
+end
+redis.call('HSET', KEYS[1], '_status', ARGV[2])
+redis.call('ZREM', KEYS[2], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+return lines
@@ -0,0 +1,31 @@
+-- Reserves every line of an order, or none of them.
+-- KEYS[1] hold hash, KEYS[2] expiry zset, KEYS[3] delta stream, KEYS[4..] stock hashes (one per line)
+-- ARGV[1] order id, ARGV[2] hold expires-at (epoch ms),
+-- ARGV[3..] sku/quantity pairs in the same order as the stock keys
+-- The stream is never capped here: the applier trims it behind the applied offset (trim.lua)
+-- Returns 1 reserved, 0 rejected, -i when the stock of line i is not loaded yet
+local status = redis.call('HGET', KEYS[1], '_status')
+if status then
+    -- Redelivered saga start: answer from the existing hold
+    if status == 'HELD' then return 1 end
+    return 0
+end
+
+local lines = #KEYS - 3
+for i = 1, lines do
+    local available = redis.call('HGET', KEYS[i + 3], 'available')
+    if not available then return -i end
+    if tonumber(available) < tonumber(ARGV[2 + 2 * i]) then return 0 end
+end
+
+for i = 1, lines do
+    local sku = ARGV[1 + 2 * i]
+    local qty = tonumber(ARGV[2 + 2 * i])
+    redis.call('HINCRBY', KEYS[i + 3], 'available', -qty)
+    redis.call('HINCRBY', KEYS[i + 3], 'reserved', qty)
+    redis.call('HSET', KEYS[1], sku, qty)
+    redis.call('XADD', KEYS[3], '*', 'sku', sku, 'available', -qty, 'reserved', qty)
+end
+redis.call('HSET', KEYS[1], '_status', 'HELD')
+redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+return 1
@@ -0,0 +1,6 @@
+-- Loads a SKU's counters from Postgres unless another node already did.
+-- KEYS[1] stock hash; ARGV[1] available, ARGV[2] reserved
+-- Returns 1 when seeded, 0 when already present
+if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+redis.call('HSET', KEYS[1], 'available', ARGV[1], 'reserved', ARGV[2])
+return 1
@@ -0,0 +1,3 @@
+-- Drops deltas that are already applied to Postgres.
+-- KEYS[1] delta stream; ARGV[1] last applied entry id
+return redis.call('XTRIM', KEYS[1], 'MINID', ARGV[1])
@@ -0,0 +1,220 @@
+package com.ecomm.inventory.service;
+
+import com.ecomm.inventory.config.RedisInventoryConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * reserve.lua / release.lua / confirm.lua against a real Redis, with the argument layout of
+ * {@link com.ecomm.inventory.service.impl.RedisInventoryService}.
+ */
+class RedisInventoryScriptsTest {
+
+    private static final String SKU_A = "SKU-A";
+    private static final String SKU_B = "SKU-B";
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connections;
+    private static StringRedisTemplate redis;
+
+    private final RedisInventoryConfig scripts = new RedisInventoryConfig();
+    private final RedisScript<Long> reserve = scripts.reserveStockScript();
+    private final RedisScript<Long> release = scripts.releaseStockScript();
+    private final RedisScript<Long> confirm = scripts.confirmStockScript();
+    private final RedisScript<Long> seed = scripts.seedStockScript();
+
+    private RedisInventoryKeys keys;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new RedisServer(port);
+        server.start();
+
+        connections = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connections.afterPropertiesSet();
+        redis = new StringRedisTemplate(connections);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (connections != null) {
+            connections.destroy();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @BeforeEach
+    void seedStock() {
+        // Fresh hash tag per test, so tests never see each other's keys
+        keys = new RedisInventoryKeys("inv-test-" + System.nanoTime());
+        assertThat(redis.execute(seed, List.of(keys.stock(SKU_A)), "10", "0")).isEqualTo(1L);
+        assertThat(redis.execute(seed, List.of(keys.stock(SKU_B)), "5", "0")).isEqualTo(1L);
+    }
+
+    @Test
+    void seedKeepsLoadedStock() {
+        assertThat(redis.execute(seed, List.of(keys.stock(SKU_A)), "99", "0")).isZero();
+        assertStock(SKU_A, 10, 0);
+    }
+
+    @Test
+    void reserveTakesEveryLineAndRedeliveryChangesNothing() {
+        assertThat(reserve(1L, Map.of(SKU_A, 3L, SKU_B, 2L))).isEqualTo(1L);
+        assertStock(SKU_A, 7, 3);
+        assertStock(SKU_B, 3, 2);
+
+        assertThat(reserve(1L, Map.of(SKU_A, 3L, SKU_B, 2L))).isEqualTo(1L);
+        assertStock(SKU_A, 7, 3);
+        assertStock(SKU_B, 3, 2);
+        assertThat(redis.opsForStream().size(keys.deltas())).isEqualTo(2L);
+    }
+
+    @Test
+    void reserveWithOneLineShortTakesNothing() {
+        assertThat(reserve(1L, Map.of(SKU_A, 1L, SKU_B, 6L))).isZero();
+
+        assertStock(SKU_A, 10, 0);
+        assertStock(SKU_B, 5, 0);
+        assertThat(redis.hasKey(keys.hold(1L))).isFalse();
+        assertThat(redis.opsForStream().size(keys.deltas())).isZero();
+    }
+
+    @Test
+    void reserveOfStockNotLoadedYetNamesTheLine() {
+        assertThat(reserve(1L, Map.of(SKU_A, 1L, "SKU-C", 1L))).isEqualTo(-2L);
+        assertStock(SKU_A, 10, 0);
+    }
+
+    @Test
+    void releaseGivesStockBackOnce() {
+        reserve(1L, Map.of(SKU_A, 3L, SKU_B, 2L));
+
+        assertThat(release(1L, "RELEASED")).isEqualTo(2L);
+        assertStock(SKU_A, 10, 0);
+        assertStock(SKU_B, 5, 0);
+        assertThat(redis.opsForHash().get(keys.hold(1L), "_status")).isEqualTo("RELEASED");
+
+        assertThat(release(1L, "RELEASED")).isZero();
+        assertStock(SKU_A, 10, 0);
+        assertThat(redis.opsForZSet().size(keys.holdExpiry())).isZero();
+    }
+
+    @Test
+    void releaseOfRedeliveredStartAfterReleaseTakesNothing() {
+        reserve(1L, Map.of(SKU_A, 3L));
+        release(1L, "RELEASED");
+
+        assertThat(reserve(1L, Map.of(SKU_A, 3L))).isZero();
+        assertStock(SKU_A, 10, 0);
+    }
+
+    @Test
+    void confirmKeepsTheHold() {
+        reserve(1L, Map.of(SKU_A, 4L));
+
+        assertThat(confirm(1L)).isEqualTo(1L);
+        assertThat(confirm(1L)).isEqualTo(3L);
+        assertThat(release(1L, "RELEASED")).isZero();
+        assertStock(SKU_A, 6, 4);
+        assertThat(redis.opsForZSet().size(keys.holdExpiry())).isZero();
+    }
+
+    @Test
+    void confirmAfterExpiryReservesAgainWhileStockIsThere() {
+        reserve(1L, Map.of(SKU_A, 4L, SKU_B, 2L));
+        assertThat(release(1L, "EXPIRED")).isEqualTo(2L);
+
+        assertThat(confirm(1L)).isEqualTo(2L);
+        assertStock(SKU_A, 6, 4);
+        assertStock(SKU_B, 3, 2);
+        assertThat(redis.opsForHash().get(keys.hold(1L), "_status")).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void confirmAfterExpiryWithStockSoldTakesNothing() {
+        reserve(1L, Map.of(SKU_A, 4L, SKU_B, 2L));
+        release(1L, "EXPIRED");
+        reserve(2L, Map.of(SKU_B, 4L));
+
+        assertThat(confirm(1L)).isZero();
+        assertStock(SKU_A, 10, 0);
+        assertStock(SKU_B, 1, 4);
+        assertThat(redis.opsForHash().get(keys.hold(1L), "_status")).isEqualTo("EXPIRED");
+    }
+
+    @Test
+    void confirmAfterReleaseTakesNothing() {
+        reserve(1L, Map.of(SKU_A, 4L));
+        release(1L, "RELEASED");
+
+        assertThat(confirm(1L)).isZero();
+        assertStock(SKU_A, 10, 0);
+    }
+
+    private Long reserve(long orderId, Map<String, Long> quantities) {
+        List<String> scriptKeys = new ArrayList<>(List.of(keys.hold(orderId), keys.holdExpiry(), keys.deltas()));
+        List<String> args = new ArrayList<>(List.of(String.valueOf(orderId),
+                String.valueOf(System.currentTimeMillis() + 60_000)));
+        new TreeMap<>(quantities).forEach((sku, qty) -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+            args.add(String.valueOf(qty));
+        });
+        return redis.execute(reserve, scriptKeys, args.toArray());
+    }
+
+    private Long release(long orderId, String finalStatus) {
+        List<String> scriptKeys = new ArrayList<>(List.of(keys.hold(orderId), keys.holdExpiry(), keys.deltas()));
+        List<String> args = new ArrayList<>(List.of(String.valueOf(orderId), finalStatus, "60"));
+        holdLines(orderId).forEach(sku -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+        });
+        return redis.execute(release, scriptKeys, args.toArray());
+    }
+
+    private Long confirm(long orderId) {
+        List<String> scriptKeys = new ArrayList<>(List.of(keys.hold(orderId), keys.holdExpiry(), keys.deltas()));
+        List<String> args = new ArrayList<>(List.of(String.valueOf(orderId), "60"));
+        holdLines(orderId).forEach(sku -> {
+            scriptKeys.add(keys.stock(sku));
+            args.add(sku);
+        });
+        return redis.execute(confirm, scriptKeys, args.toArray());
+    }
+
+    private List<String> holdLines(long orderId) {
+        return redis.opsForHash().keys(keys.hold(orderId)).stream()
+                .map(String::valueOf)
+                .filter(field -> !field.startsWith("_"))
+                .sorted()
+                .toList();
+    }
+
+    private void assertStock(String sku, long available, long reserved) {
+        assertThat(redis.opsForHash().multiGet(keys.stock(sku), List.of("available", "reserved")))
+                .containsExactly(String.valueOf(available), String.valueOf(reserved));
+    }
+}
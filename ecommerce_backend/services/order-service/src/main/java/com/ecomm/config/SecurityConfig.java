@@ -1,6 +1,7 @@
 package com.ecomm.config;
 
 import com.ecomm.config.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -53,6 +54,9 @@ public class SecurityConfig {
                 // --------------------------
                 .authorizeHttpRequests(auth -> auth
 
+                        // Async dispatches of an already authorized request (SSE status stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Actuator health check for k8s, gateway, monitoring
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                         .requestMatchers(
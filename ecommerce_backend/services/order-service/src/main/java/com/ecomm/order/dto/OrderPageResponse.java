@@ -0,0 +1,9 @@
+package com.ecomm.order.dto;
+
+import java.util.List;
+
+// T: OrderResponse (full view) or OrderSummaryResponse (summary view)
+public record OrderPageResponse<T>(
+        List<T> items,
+        String nextCursor   // null on the last page
+) {}
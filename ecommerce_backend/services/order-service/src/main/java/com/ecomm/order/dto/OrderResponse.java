@@ -1,7 +1,6 @@
 package com.ecomm.order.dto;
 
 import com.ecomm.events.order.domain.OrderStatus;
-import com.ecomm.events.order.domain.RecommendedProductSummary;
 
 import java.time.Instant;
 import java.util.List;
@@ -13,6 +12,5 @@ public record OrderResponse(
         List<CreateOrderRequest.OrderItemDto> items,
         double totalAmount,
         OrderStatus status,
-        Instant createdAt,
-        List<RecommendedProductSummary> recommendedProducts
+        Instant createdAt
 ) {}
@@ -0,0 +1,42 @@
+package com.ecomm.order.dto;
+
+import com.ecomm.events.order.domain.Order;
+
+public class OrderResponseMapper {
+
+    public static OrderResponse toResponse(Order order) {
+        var customerDto = new CreateOrderRequest.CustomerDto(
+                order.getCustomer().getCustomerId(),
+                order.getCustomer().getName(),
+                order.getCustomer().getEmail()
+        );
+
+        var shippingDto = new CreateOrderRequest.ShippingAddressDto(
+                order.getShippingAddress().getLine1(),
+                order.getShippingAddress().getLine2(),
+                order.getShippingAddress().getCity(),
+                order.getShippingAddress().getState(),
+                order.getShippingAddress().getPostalCode(),
+                order.getShippingAddress().getCountry()
+        );
+
+        var itemDtos = order.getItems().stream()
+                .map(i -> new CreateOrderRequest.OrderItemDto(
+                        i.getProductId(),
+                        i.getProductName(),
+                        i.getPrice(),
+                        i.getQuantity()
+                ))
+                .toList();
+
+        return new OrderResponse(
+                order.getExternalOrderId(),
+                customerDto,
+                shippingDto,
+                itemDtos,
+                order.getTotalAmount(),
+                order.getStatus(),
+                order.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecomm.order.dto;
+
+import com.ecomm.events.order.domain.OrderStatus;
+
+import java.time.Instant;
+
+// List view of an order: no line items, address or recommendations
+public record OrderSummaryResponse(
+        String id,   // externalOrderId
+        String customerId,
+        double totalAmount,
+        OrderStatus status,
+        Instant createdAt,
+        long itemCount
+) {}
@@ -0,0 +1,80 @@
+package com.ecomm.order.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style external order IDs: {@code O-} followed by a zero-padded 64-bit number made of
+ * 41 bits of milliseconds since 2024-01-01, a 10-bit node ID and a 12-bit per-millisecond sequence.
+ * <p>
+ * IDs are unique across nodes as long as node IDs are, need no lock or DB round trip (one CAS on the
+ * packed time+sequence), and sort by creation time. When a millisecond's 4096 sequence values are used
+ * up, or the clock steps back, the generator runs on the next logical millisecond instead of waiting.
+ * <p>
+ * The node ID comes from {@code order.id.node-id} and must be unique per running node; startup fails
+ * without it. Only the {@code dev} profile falls back to a hash of the discovery instance ID, which can
+ * collide in 10 bits and is therefore never used outside a single-node setup.
+ */
+@Slf4j
+@Component
+public class OrderIdGenerator {
+
+    private static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    // (ms since EPOCH_MS << SEQUENCE_BITS) | sequence of the last ID handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public OrderIdGenerator(Environment env) {
+        this.nodeId = resolveNodeId(env);
+        log.info("Order ID generator using node id {}", nodeId);
+    }
+
+    public String nextExternalOrderId() {
+        return "O-%019d".formatted(nextId());
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            // a new millisecond starts at sequence 0; otherwise take the next value after the last one
+            next = now > previous ? now : previous + 1;
+        } while (!last.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    private static long resolveNodeId(Environment env) {
+        Long configured = env.getProperty("order.id.node-id", Long.class);
+        if (configured != null) {
+            if (configured < 0 || configured > MAX_NODE_ID) {
+                throw new IllegalStateException("order.id.node-id must be between 0 and " + MAX_NODE_ID);
+            }
+            return configured;
+        }
+        if (!env.matchesProfiles("dev")) {
+            throw new IllegalStateException("order.id.node-id is not set; give every order-service node a unique value "
+                    + "between 0 and " + MAX_NODE_ID + " (a hashed instance id can collide and duplicate order ids)");
+        }
+        String instance = env.getProperty("eureka.instance.instance-id",
+                env.getProperty("spring.cloud.client.ip-address", "localhost") + ":" + env.getProperty("server.port", "8080"));
+        long derived = (instance.hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+        log.warn("order.id.node-id not set, derived {} from instance {} (dev profile only)",
+                derived, instance);
+        return derived;
+    }
+}
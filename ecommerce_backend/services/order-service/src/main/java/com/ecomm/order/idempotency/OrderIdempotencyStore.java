@@ -0,0 +1,149 @@
+package com.ecomm.order.idempotency;
+
+import com.ecomm.order.dto.CreateOrderRequest;
+import com.ecomm.order.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POST /orders.
+ * <p>
+ * The first request with a key claims it in Redis (SET NX) and creates the order; its response is
+ * then stored under the key for {@code order.idempotency.response-ttl}. A retry with the same key
+ * gets the stored response instead of a second order and saga. A retry that arrives while the first
+ * is still running waits for it, up to {@code order.idempotency.wait-timeout}. If the first request
+ * fails, the key is released so the client can try again.
+ * <p>
+ * Keys are scoped per user, and a key reused with a different body is rejected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIdempotencyStore {
+
+    private static final String KEY_PREFIX = "order:idem:";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.idempotency.response-ttl:PT24H}")
+    private Duration responseTtl;
+
+    // Longer than a createOrder call can take; a crashed request frees its key after this
+    @Value("${order.idempotency.lock-ttl:PT30S}")
+    private Duration lockTtl;
+
+    @Value("${order.idempotency.wait-timeout:PT10S}")
+    private Duration waitTimeout;
+
+    @Value("${order.idempotency.poll-interval:PT0.05S}")
+    private Duration pollInterval;
+
+    // requestHash: SHA-256 of the request body; response: null while the first request is running
+    record Entry(String requestHash, OrderResponse response) {
+    }
+
+    public OrderResponse execute(String userId, String idempotencyKey, CreateOrderRequest request,
+                                 Supplier<OrderResponse> createOrder) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String key = KEY_PREFIX + userId + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            if (Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, write(new Entry(requestHash, null)), lockTtl))) {
+                return createAndStore(key, requestHash, createOrder);
+            }
+
+            String stored = redis.opsForValue().get(key);
+            if (stored != null) {
+                Entry entry = read(stored);
+                if (!entry.requestHash().equals(requestHash)) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                            "Idempotency-Key was already used with a different request");
+                }
+                if (entry.response() != null) {
+                    log.info("Replaying order {} for Idempotency-Key {} of user {}",
+                            entry.response().id(), idempotencyKey, userId);
+                    return entry.response();
+                }
+            }
+            // stored == null: the first request failed and released the key; claim it on the next pass
+
+            if (System.nanoTime() > deadline) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+    }
+
+    private OrderResponse createAndStore(String key, String requestHash, Supplier<OrderResponse> createOrder) {
+        OrderResponse response;
+        try {
+            response = createOrder.get();
+        } catch (RuntimeException e) {
+            redis.delete(key);
+            throw e;
+        }
+        try {
+            redis.opsForValue().set(key, write(new Entry(requestHash, response)), responseTtl);
+        } catch (RuntimeException e) {
+            // The order is committed either way; only a retry after lock-ttl could still duplicate it
+            log.error("Failed to store Idempotency-Key response for order {}: {}", response.id(), e.getMessage(), e);
+        }
+        return response;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting", e);
+        }
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(write(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize idempotency entry", e);
+        }
+    }
+
+    private Entry read(String value) {
+        try {
+            return objectMapper.readValue(value, Entry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency entry", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecomm.order.outbox;
+
+import com.ecomm.order.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Records a Kafka message in the caller's transaction instead of sending it:
+ * it is published only if the transaction commits, and the caller never waits on Kafka.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(String topic, String key, Object payload) {
+        store(topic, key, payload, null);
+    }
+
+    /**
+     * Like {@link #add}, but the relay holds the message back until {@code availableAt}, so data that
+     * arrives after the commit can still go into it through {@link #enrich}.
+     * @return the message id to enrich
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Long addDeferred(String topic, String key, Object payload, Instant availableAt) {
+        return store(topic, key, payload, availableAt).getId();
+    }
+
+    /**
+     * Replaces the payload of a deferred message that has not been relayed yet.
+     * Callers may sit in afterCommit, where the old transaction is still bound but can no longer commit.
+     * @return false when the message was already sent, it then goes out as first written
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean enrich(Long id, Object payload) {
+        return outboxRepository.updatePayload(id, write(payload)) > 0;
+    }
+
+    private OrderOutboxMessage store(String topic, String key, Object payload, Instant availableAt) {
+        return outboxRepository.save(OrderOutboxMessage.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payloadType(payload.getClass().getName())
+                .payload(write(payload))
+                .createdAt(Instant.now())
+                .availableAt(availableAt)
+                .build());
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecomm.order.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A Kafka message written in the same transaction as the order change it belongs to.
+ * The id gives the publish order; {@link OrderOutboxRelay} sends and deletes the rows.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String topic;
+
+    // Kafka key, so the relay lands the message on the same partition a direct send would
+    @Column(name = "message_key", length = 200)
+    private String messageKey;
+
+    // Class the payload is read back into, so consumers see the same type headers as before
+    @Column(name = "payload_type", nullable = false, length = 300)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Not relayed before this time (null = right away), so a message can still be enriched after commit
+    @Column(name = "available_at")
+    private Instant availableAt;
+}
@@ -0,0 +1,92 @@
+package com.ecomm.order.outbox;
+
+import com.ecomm.order.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains order_outbox to Kafka.
+ * <p>
+ * Each round takes the oldest rows in id order, sends them keyed as they were written (same
+ * partition, and with the idempotent single-in-flight producer, same order as a direct send),
+ * waits for every ack and deletes the batch in one statement. An advisory lock keeps a single
+ * relay active, so order holds with several nodes. A failed batch is rolled back and sent again
+ * on the next round: delivery is at-least-once, consumers deduplicate by saga / event id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderOutboxRelay {
+
+    private static final long RELAY_LOCK_ID = 0x6f72646572L; // "order"
+
+    private final OrderOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> sagaKafkaTemplate;
+    private final TransactionTemplate txTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${order.outbox.send-timeout:PT10S}")
+    private Duration sendTimeout;
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            Integer sent;
+            // Keep draining while full batches come back, so a backlog clears without waiting for the next tick
+            do {
+                sent = txTemplate.execute(status -> relayBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (Exception e) {
+            log.error("Order outbox relay failed, batch will be retried: {}", e.getMessage(), e);
+        }
+    }
+
+    private int relayBatch() {
+        if (!outboxRepository.tryRelayLock(RELAY_LOCK_ID)) {
+            return 0;
+        }
+        List<OrderOutboxMessage> batch = outboxRepository.findOldest(batchSize, Instant.now());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        for (OrderOutboxMessage message : batch) {
+            acks.add(sagaKafkaTemplate.send(message.getTopic(), message.getMessageKey(), read(message)));
+        }
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch of " + batch.size(), e);
+        }
+
+        outboxRepository.deleteAllByIdInBatch(batch.stream().map(OrderOutboxMessage::getId).toList());
+        log.debug("Relayed {} outbox messages", batch.size());
+        return batch.size();
+    }
+
+    private Object read(OrderOutboxMessage message) {
+        try {
+            return objectMapper.readValue(message.getPayload(), Class.forName(message.getPayloadType()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable outbox message " + message.getId(), e);
+        }
+    }
+}
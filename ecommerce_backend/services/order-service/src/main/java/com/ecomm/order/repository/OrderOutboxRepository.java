@@ -0,0 +1,30 @@
+package com.ecomm.order.repository;
+
+import com.ecomm.order.outbox.OrderOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxMessage, Long> {
+
+    // One relay at a time across all nodes; released when the transaction ends
+    @Query(value = "select pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockId") long lockId);
+
+    @Query(value = """
+            select * from order_outbox
+             where available_at is null or available_at <= :now
+             order by id
+             limit :limit
+            """, nativeQuery = true)
+    List<OrderOutboxMessage> findOldest(@Param("limit") int limit, @Param("now") Instant now);
+
+    // 0 when the relay already sent (and deleted) the message
+    @Modifying
+    @Query("update OrderOutboxMessage m set m.payload = :payload where m.id = :id")
+    int updatePayload(@Param("id") Long id, @Param("payload") String payload);
+}
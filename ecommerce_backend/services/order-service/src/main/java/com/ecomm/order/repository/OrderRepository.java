@@ -2,22 +2,124 @@ package com.ecomm.order.repository;
 
 import com.ecomm.events.order.domain.Order;
 import com.ecomm.events.order.domain.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    // Look up by external business ID (O-12345...)
+    // Look up by external business ID (O-12345...), items in the same query
+    @EntityGraph(attributePaths = "items")
     Optional<Order> findByExternalOrderId(String externalOrderId);
 
-    // All orders for a customer
-    List<Order> findByCustomer_CustomerId(String customerId);
+    // Keyset listing, newest first: everything strictly after the cursor in (createdAt desc, id desc) order.
+    // One query per filter combination rather than "(:x is null or ...)", so each plan can use its own index
+    // (idx_orders_created / idx_orders_customer_created / idx_orders_status_created).
+    // Pass PageRequest.of(0, n): only the size is used, no count query runs; OrderCursor.START for the first page.
+    @Query("""
+            select o from Order o
+             where (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findPageAfter(@Param("createdAt") Instant createdAt,
+                              @Param("id") Long id,
+                              Pageable page);
 
-    // Orders for a customer with specific status
-    List<Order> findByCustomer_CustomerIdAndStatus(String customerId, OrderStatus status);
+    @Query("""
+            select o from Order o
+             where o.customer.customerId = :customerId
+               and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findPageAfterByCustomer(@Param("customerId") String customerId,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("id") Long id,
+                                        Pageable page);
 
-    // All orders with a specific status
-    List<Order> findByStatus(OrderStatus status);
+    @Query("""
+            select o from Order o
+             where o.status = :status
+               and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findPageAfterByStatus(@Param("status") OrderStatus status,
+                                      @Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id,
+                                      Pageable page);
+
+    @Query("""
+            select o from Order o
+             where o.customer.customerId = :customerId
+               and o.status = :status
+               and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findPageAfterByCustomerAndStatus(@Param("customerId") String customerId,
+                                                 @Param("status") OrderStatus status,
+                                                 @Param("createdAt") Instant createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable page);
+
+    // Summary view of the same pages: one row per order, item count instead of items
+    @Query("""
+            select new com.ecomm.order.repository.OrderSummaryRow(
+                   o.id, o.externalOrderId, o.customer.customerId, o.totalAmount, o.status, o.createdAt,
+                   (select count(i) from OrderItem i where i.order = o))
+              from Order o
+             where (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<OrderSummaryRow> findSummaryPageAfter(@Param("createdAt") Instant createdAt,
+                                               @Param("id") Long id,
+                                               Pageable page);
+
+    @Query("""
+            select new com.ecomm.order.repository.OrderSummaryRow(
+                   o.id, o.externalOrderId, o.customer.customerId, o.totalAmount, o.status, o.createdAt,
+                   (select count(i) from OrderItem i where i.order = o))
+              from Order o
+             where o.customer.customerId = :customerId
+               and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<OrderSummaryRow> findSummaryPageAfterByCustomer(@Param("customerId") String customerId,
+                                                         @Param("createdAt") Instant createdAt,
+                                                         @Param("id") Long id,
+                                                         Pageable page);
+
+    @Query("""
+            select new com.ecomm.order.repository.OrderSummaryRow(
+                   o.id, o.externalOrderId, o.customer.customerId, o.totalAmount, o.status, o.createdAt,
+                   (select count(i) from OrderItem i where i.order = o))
+              from Order o
+             where o.status = :status
+               and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<OrderSummaryRow> findSummaryPageAfterByStatus(@Param("status") OrderStatus status,
+                                                       @Param("createdAt") Instant createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable page);
+
+    @Query("""
+            select new com.ecomm.order.repository.OrderSummaryRow(
+                   o.id, o.externalOrderId, o.customer.customerId, o.totalAmount, o.status, o.createdAt,
+                   (select count(i) from OrderItem i where i.order = o))
+              from Order o
+             where o.customer.customerId = :customerId
+               and o.status = :status
+               and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+             order by o.createdAt desc, o.id desc
+            """)
+    List<OrderSummaryRow> findSummaryPageAfterByCustomerAndStatus(@Param("customerId") String customerId,
+                                                                  @Param("status") OrderStatus status,
+                                                                  @Param("createdAt") Instant createdAt,
+                                                                  @Param("id") Long id,
+                                                                  Pageable page);
 }
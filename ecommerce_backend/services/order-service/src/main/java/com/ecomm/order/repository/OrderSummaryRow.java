@@ -0,0 +1,16 @@
+package com.ecomm.order.repository;
+
+import com.ecomm.events.order.domain.OrderStatus;
+
+import java.time.Instant;
+
+// Summary projection; carries the internal id for the keyset cursor
+public record OrderSummaryRow(
+        Long id,
+        String externalOrderId,
+        String customerId,
+        double totalAmount,
+        OrderStatus status,
+        Instant createdAt,
+        long itemCount
+) {}
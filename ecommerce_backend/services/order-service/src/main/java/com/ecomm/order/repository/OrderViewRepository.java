@@ -0,0 +1,14 @@
+package com.ecomm.order.repository;
+
+import com.ecomm.order.view.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderViewRepository extends JpaRepository<OrderView, String> {
+
+    @Modifying
+    @Query("delete from OrderView v where v.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -20,9 +20,10 @@ public class OrderSagaMapper {
                 ? order.getCustomer().getCustomerId()
                 : null;
 
+        // Participants key their ledgers by the numeric order id, and replies carry it back as a Long
         return new OrderSagaStartEvent(
                 sagaId,
-                order.getExternalOrderId(),
+                String.valueOf(order.getId()),
                 customerId,
                 BigDecimal.valueOf(order.getTotalAmount()),
                 items
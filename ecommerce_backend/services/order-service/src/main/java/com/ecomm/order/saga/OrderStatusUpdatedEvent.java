@@ -1,13 +1,27 @@
 package com.ecomm.order.saga;
 
+import com.ecomm.events.order.domain.Order;
 import com.ecomm.events.order.domain.OrderStatus;
 
 import java.time.Instant;
 
 public record OrderStatusUpdatedEvent(
         String sagaId,
-        String orderId,
+        String orderId,      // externalOrderId
+        String customerId,
         OrderStatus previousStatus,
         OrderStatus newStatus,
         Instant updatedAt
-) {}
+) {
+
+    public static OrderStatusUpdatedEvent of(String sagaId, Order order, OrderStatus previousStatus) {
+        return new OrderStatusUpdatedEvent(
+                sagaId,
+                order.getExternalOrderId(),
+                order.getCustomer().getCustomerId(),
+                previousStatus,
+                order.getStatus(),
+                order.getUpdatedAt() != null ? order.getUpdatedAt() : Instant.now()
+        );
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecomm.order.saga;
+
+import com.ecomm.events.saga.SagaStatus;
+import com.ecomm.order.service.OrderSagaService;
+import com.ecomm.ordersaga.domain.OrderSagaEntity;
+import com.ecomm.ordersaga.domain.repository.OrderSagaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds sagas stuck waiting for a participant's reply and hands them to {@link OrderSagaService#onStepTimeout}.
+ * <p>
+ * A saga is overdue when it has sat in a waiting status (STARTED, INVENTORY_RESERVED; paid sagas are never timed out)
+ * for longer than {@code order.saga.timeout.step-timeout}. Each round reads at most {@code batch-size}
+ * rows off the (status, updated_at) index, so the cost depends on the overdue count, not the table size.
+ * Rows are locked with SKIP LOCKED, so several nodes split the work instead of resending twice.
+ * Handling a saga updates it, which moves it out of the overdue window until the next timeout.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaTimeoutScanner {
+
+    private static final List<String> WAITING_STATUSES = Arrays.stream(SagaStatus.values())
+            .filter(status -> OrderSagaService.pendingStep(status) != null)
+            .map(Enum::name)
+            .toList();
+
+    private final OrderSagaRepository sagaRepository;
+    private final OrderSagaService orderSagaService;
+    private final TransactionTemplate txTemplate;
+
+    @Value("${order.saga.timeout.step-timeout:PT2M}")
+    private Duration stepTimeout;
+
+    @Value("${order.saga.timeout.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${order.saga.timeout.batch-size:200}")
+    private int batchSize;
+
+    // Upper bound per tick, so a large backlog cannot hold the scheduler thread indefinitely
+    @Value("${order.saga.timeout.max-batches-per-scan:10}")
+    private int maxBatchesPerScan;
+
+    @Scheduled(fixedDelayString = "${order.saga.timeout.scan-interval-ms:5000}")
+    public void scan() {
+        try {
+            int batches = 0;
+            Integer handled;
+            do {
+                handled = txTemplate.execute(status -> scanBatch());
+                batches++;
+            } while (handled != null && handled == batchSize && batches < maxBatchesPerScan);
+        } catch (Exception e) {
+            log.error("Saga timeout scan failed, retrying next round: {}", e.getMessage(), e);
+        }
+    }
+
+    private int scanBatch() {
+        OffsetDateTime before = OffsetDateTime.now().minus(stepTimeout);
+        List<OrderSagaEntity> overdue = sagaRepository.lockOverdue(WAITING_STATUSES, before, batchSize);
+        for (OrderSagaEntity saga : overdue) {
+            orderSagaService.onStepTimeout(saga, maxRetries);
+        }
+        if (!overdue.isEmpty()) {
+            log.info("Handled {} overdue sagas", overdue.size());
+        }
+        return overdue.size();
+    }
+}
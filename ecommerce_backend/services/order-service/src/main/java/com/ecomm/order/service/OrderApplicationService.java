@@ -7,38 +7,67 @@ import com.ecomm.events.order.domain.OrderStatus;
 import com.ecomm.events.order.domain.ShippingAddress;
 import com.ecomm.events.order.kafka.OrderEventProducer;
 import com.ecomm.notification.OrderEvents;
+import com.ecomm.events.order.OrderCommunicationEvent;
 import com.ecomm.events.order.OrderSagaStartEvent;
 import com.ecomm.events.order.SagaStep;
 import com.ecomm.events.order.domain.RecommendedProductSummary;
 import com.ecomm.order.client.ProductRecommendationClient;
 import com.ecomm.order.dto.CreateOrderRequest;
+import com.ecomm.order.dto.OrderCursor;
+import com.ecomm.order.dto.OrderPageResponse;
 import com.ecomm.order.dto.OrderResponse;
+import com.ecomm.order.dto.OrderResponseMapper;
+import com.ecomm.order.dto.OrderSummaryResponse;
 import com.ecomm.order.dto.UpdateOrderRequest;
+import com.ecomm.order.id.OrderIdGenerator;
+import com.ecomm.order.outbox.OrderOutbox;
 import com.ecomm.order.repository.OrderRepository;
+import com.ecomm.order.repository.OrderSummaryRow;
 import com.ecomm.order.saga.OrderSagaMapper;
+import com.ecomm.order.saga.OrderStatusUpdatedEvent;
+import com.ecomm.order.view.OrderViewProjector;
 import com.ecomm.saga.kafka.SagaKafkaTopics;
 import com.ecomm.saga.kafka.SagaMessageKeys;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderApplicationService {
 
     private final OrderRepository orderRepository;
-    private final KafkaTemplate<String, Object> sagaKafkaTemplate;
+    private final OrderIdGenerator orderIdGenerator;
+    private final OrderOutbox orderOutbox;
+    private final OrderViewProjector orderViewProjector;
     private final ApplicationEventPublisher eventPublisher;
     private final ProductRecommendationClient productRecommendationClient;
     private final OrderEventProducer orderEventProducer;
+    private final OrderSagaService orderSagaService;
+
+    @Value("${order.listing.max-page-size:100}")
+    private int maxPageSize;
+
+    // How long the confirmation email waits in the outbox for its recommendations
+    @Value("${order.notification.email-enrich-window:PT1S}")
+    private Duration emailEnrichWindow;
+
+    private static final int RECOMMENDATION_LIMIT = 6;
 
     // statuses where USER cannot modify/cancel
     private static final EnumSet<OrderStatus> USER_CANNOT_EDIT =
@@ -56,6 +85,14 @@ public class OrderApplicationService {
     @Transactional
     public OrderResponse createOrder(String userIdFromToken, CreateOrderRequest request) {
 
+        // 0. AI-style product recommendations (based on first product in order) for the confirmation email,
+        //    fetched while the order is saved; the request never waits for them
+        CompletableFuture<List<RecommendedProductSummary>> recommendations = productRecommendationClient.recommendForProduct(
+                Long.valueOf(request.items().get(0).id()),
+                Long.valueOf(userIdFromToken),
+                RECOMMENDATION_LIMIT
+        );
+
         // 1. Customer info – ID forced from JWT
         CustomerInfo customer = CustomerInfo.builder()
                 .customerId(userIdFromToken)
@@ -89,7 +126,7 @@ public class OrderApplicationService {
 
         // 4. Order
         Order order = Order.builder()
-                .externalOrderId("O-" + System.currentTimeMillis())
+                .externalOrderId(orderIdGenerator.nextExternalOrderId())
                 .customer(customer)
                 .shippingAddress(shipping)
                 .totalAmount(total)
@@ -102,17 +139,7 @@ public class OrderApplicationService {
         items.forEach(order::addItem);
 
         order = orderRepository.save(order);
-
-        // 5. AI-style product recommendations (based on first product in order)
-        List<RecommendedProductSummary> recommendations = Collections.emptyList();
-        if (!order.getItems().isEmpty()) {
-            Long mainProductId = Long.valueOf(order.getItems().get(0).getProductId());
-            recommendations = productRecommendationClient.recommendForProduct(
-                    mainProductId,
-                    Long.valueOf(order.getCustomer().getCustomerId()),
-                    6
-            );
-        }
+        orderViewProjector.project(order);
 
         // 🔔 EVENT: domain order placed (internal Spring event)
         eventPublisher.publishEvent(new OrderEvents.OrderPlacedEvent(
@@ -127,17 +154,57 @@ public class OrderApplicationService {
                 order.getPaymentMethod()
         ));
 
-        // 6. Start Saga
+        // 6. Start Saga + ORDER_PLACED, through the outbox: published only if this transaction commits;
+        //    the saga row is written here too, so replies and the timeout scanner always find it
         String sagaId = OrderSagaMapper.newSagaId();
+        orderSagaService.createSaga(sagaId, order);
         OrderSagaStartEvent event = OrderSagaMapper.toStartEvent(sagaId, order);
         String key = SagaMessageKeys.commandKey(sagaId, SagaStep.INVENTORY);
-        sagaKafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_START, key, event);
+        orderOutbox.add(SagaKafkaTopics.ORDER_SAGA_START, key, event);
+        orderOutbox.add(OrderEventProducer.ORDER_PLACED_TOPIC, order.getId().toString(), orderEventProducer.placedEvent(order));
+
+        // 7. Communications event (email/push), written with the order so it is never lost; held back for
+        //    the enrich window, during which the recommendations are added once they arrive
+        OrderCommunicationEvent email = orderEventProducer.communicationEvent(order, Collections.emptyList());
+        Long emailMessageId = orderOutbox.addDeferred(OrderEventProducer.USER_EMAIL_OUTBOX_TOPIC,
+                order.getUserId().toString(), email, Instant.now().plus(emailEnrichWindow));
+        String externalOrderId = order.getExternalOrderId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recommendations
+                        .thenAccept(recs -> {
+                            if (recs.isEmpty()) {
+                                return;
+                            }
+                            email.setRecommendations(recs);
+                            if (!orderOutbox.enrich(emailMessageId, email)) {
+                                log.info("Confirmation email of order {} already sent without recommendations", externalOrderId);
+                            }
+                        })
+                        .exceptionally(ex -> {
+                            log.error("Failed to add recommendations to the email of order {}: {}", externalOrderId, ex.getMessage(), ex);
+                            return null;
+                        });
+            }
+        });
 
-        // 7. Fire Kafka communications event (email/push) with recommendations
-        orderEventProducer.sendOrderPlacedEvent(order, recommendations);
+        // 8. DTO back to client; recommendations are served by getRecommendations
+        return mapToOrderResponse(order);
+    }
 
-        // 8. DTO with recommendations back to client
-        return mapToOrderResponse(order, recommendations);
+    // -------------------------------------------------------------------------
+    // RECOMMENDATIONS (separate call, so placing an order never waits on product-service)
+    // -------------------------------------------------------------------------
+    public CompletableFuture<List<RecommendedProductSummary>> getRecommendations(OrderResponse order) {
+        if (order.items().isEmpty() || order.customer() == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        return productRecommendationClient.recommendForProduct(
+                Long.valueOf(order.items().get(0).id()),
+                Long.valueOf(order.customer().id()),
+                RECOMMENDATION_LIMIT
+        );
     }
 
     // -------------------------------------------------------------------------
@@ -145,44 +212,102 @@ public class OrderApplicationService {
     // -------------------------------------------------------------------------
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(String externalOrderId) {
+        // Read model first; orders placed before it existed fall back to the orders table
+        var view = orderViewProjector.find(externalOrderId);
+        if (view.isPresent()) {
+            return view.get();
+        }
         Order order = orderRepository.findByExternalOrderId(externalOrderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + externalOrderId));
-        // here we return without extra recommendations (frontend can call separate rec API if needed)
-        return mapToOrderResponse(order, Collections.emptyList());
+        return mapToOrderResponse(order);
     }
 
     // -------------------------------------------------------------------------
     // LIST ORDERS
     // -------------------------------------------------------------------------
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrders(String currentUserId, boolean isAdmin,
-                                         String customerIdFilter, OrderStatus statusFilter) {
-
+    public OrderPageResponse<OrderResponse> getOrders(String currentUserId, boolean isAdmin,
+                                                      String customerIdFilter, OrderStatus statusFilter,
+                                                      String cursor, int limit) {
+
+        // user: always bound to own ID; admin may filter by any customer or none
+        String customerId = isAdmin ? customerIdFilter : currentUserId;
+        int size = pageSize(limit);
+
+        // One extra row tells whether another page exists
+        PageRequest window = PageRequest.of(0, size + 1);
+        OrderCursor after = OrderCursor.decode(cursor);
+        Instant createdAt = after.createdAt();
+        Long id = after.id();
         List<Order> orders;
+        if (customerId != null && statusFilter != null) {
+            orders = orderRepository.findPageAfterByCustomerAndStatus(customerId, statusFilter, createdAt, id, window);
+        } else if (customerId != null) {
+            orders = orderRepository.findPageAfterByCustomer(customerId, createdAt, id, window);
+        } else if (statusFilter != null) {
+            orders = orderRepository.findPageAfterByStatus(statusFilter, createdAt, id, window);
+        } else {
+            orders = orderRepository.findPageAfter(createdAt, id, window);
+        }
 
-        if (isAdmin) {
-            // admin search
-            if (customerIdFilter != null && statusFilter != null) {
-                orders = orderRepository.findByCustomer_CustomerIdAndStatus(customerIdFilter, statusFilter);
-            } else if (customerIdFilter != null) {
-                orders = orderRepository.findByCustomer_CustomerId(customerIdFilter);
-            } else if (statusFilter != null) {
-                orders = orderRepository.findByStatus(statusFilter);
-            } else {
-                orders = orderRepository.findAll();
-            }
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            Order last = orders.get(size - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        // Items of the whole page come in batches (@BatchSize on Order.items), not one query per order
+        return new OrderPageResponse<>(
+                orders.stream()
+                        .map(o -> mapToOrderResponse(o))
+                        .toList(),
+                nextCursor
+        );
+    }
+
+    // Same paging as getOrders, but one projected row per order and no line items
+    @Transactional(readOnly = true)
+    public OrderPageResponse<OrderSummaryResponse> getOrderSummaries(String currentUserId, boolean isAdmin,
+                                                                     String customerIdFilter, OrderStatus statusFilter,
+                                                                     String cursor, int limit) {
+
+        String customerId = isAdmin ? customerIdFilter : currentUserId;
+        int size = pageSize(limit);
+
+        PageRequest window = PageRequest.of(0, size + 1);
+        OrderCursor after = OrderCursor.decode(cursor);
+        Instant createdAt = after.createdAt();
+        Long id = after.id();
+        List<OrderSummaryRow> rows;
+        if (customerId != null && statusFilter != null) {
+            rows = orderRepository.findSummaryPageAfterByCustomerAndStatus(customerId, statusFilter, createdAt, id, window);
+        } else if (customerId != null) {
+            rows = orderRepository.findSummaryPageAfterByCustomer(customerId, createdAt, id, window);
+        } else if (statusFilter != null) {
+            rows = orderRepository.findSummaryPageAfterByStatus(statusFilter, createdAt, id, window);
         } else {
-            // user: always bound to own ID
-            if (statusFilter != null) {
-                orders = orderRepository.findByCustomer_CustomerIdAndStatus(currentUserId, statusFilter);
-            } else {
-                orders = orderRepository.findByCustomer_CustomerId(currentUserId);
-            }
+            rows = orderRepository.findSummaryPageAfter(createdAt, id, window);
         }
 
-        return orders.stream()
-                .map(o -> mapToOrderResponse(o, Collections.emptyList()))
-                .toList();
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            OrderSummaryRow last = rows.get(size - 1);
+            nextCursor = new OrderCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new OrderPageResponse<>(
+                rows.stream()
+                        .map(r -> new OrderSummaryResponse(r.externalOrderId(), r.customerId(), r.totalAmount(),
+                                r.status(), r.createdAt(), r.itemCount()))
+                        .toList(),
+                nextCursor
+        );
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
     }
 
     // -------------------------------------------------------------------------
@@ -238,9 +363,9 @@ public class OrderApplicationService {
 
         order.setTotalAmount(newTotal);
         order.setUpdatedAt(Instant.now());
+        orderViewProjector.project(order);
 
-        // no recommendation recalculation on update – keep empty list
-        return mapToOrderResponse(order, Collections.emptyList());
+        return mapToOrderResponse(order);
     }
 
     // -------------------------------------------------------------------------
@@ -280,6 +405,10 @@ public class OrderApplicationService {
         OrderStatus previous = order.getStatus();
         order.setStatus(newStatus);
         order.setUpdatedAt(Instant.now());
+        orderViewProjector.project(order);
+        if (newStatus != previous) {
+            eventPublisher.publishEvent(OrderStatusUpdatedEvent.of(null, order, previous));
+        }
 
         // 🔔 FIRE CANCEL EVENT
         if (newStatus == OrderStatus.CANCELLED && previous != OrderStatus.CANCELLED) {
@@ -295,7 +424,7 @@ public class OrderApplicationService {
             ));
         }
 
-        return mapToOrderResponse(order, Collections.emptyList());
+        return mapToOrderResponse(order);
     }
 
     // -------------------------------------------------------------------------
@@ -322,6 +451,8 @@ public class OrderApplicationService {
 
             order.setStatus(OrderStatus.CANCELLED);
             order.setUpdatedAt(Instant.now());
+            orderViewProjector.project(order);
+            eventPublisher.publishEvent(OrderStatusUpdatedEvent.of(null, order, previous));
 
             // 🔔 EVENT
             eventPublisher.publishEvent(new OrderEvents.OrderCancelledEvent(
@@ -340,6 +471,7 @@ public class OrderApplicationService {
             if (order.getStatus() == OrderStatus.DELIVERED) {
                 throw new IllegalStateException("Delivered orders cannot be deleted.");
             }
+            orderViewProjector.remove(order);
             orderRepository.delete(order);
         }
     }
@@ -347,40 +479,7 @@ public class OrderApplicationService {
     // -------------------------------------------------------------------------
     // MAPPER
     // -------------------------------------------------------------------------
-    private OrderResponse mapToOrderResponse(Order order, List<RecommendedProductSummary> recommendations) {
-        var customerDto = new CreateOrderRequest.CustomerDto(
-                order.getCustomer().getCustomerId(),
-                order.getCustomer().getName(),
-                order.getCustomer().getEmail()
-        );
-
-        var shippingDto = new CreateOrderRequest.ShippingAddressDto(
-                order.getShippingAddress().getLine1(),
-                order.getShippingAddress().getLine2(),
-                order.getShippingAddress().getCity(),
-                order.getShippingAddress().getState(),
-                order.getShippingAddress().getPostalCode(),
-                order.getShippingAddress().getCountry()
-        );
-
-        var itemDtos = order.getItems().stream()
-                .map(i -> new CreateOrderRequest.OrderItemDto(
-                        i.getProductId(),
-                        i.getProductName(),
-                        i.getPrice(),
-                        i.getQuantity()
-                ))
-                .toList();
-
-        return new OrderResponse(
-                order.getExternalOrderId(),
-                customerDto,
-                shippingDto,
-                itemDtos,
-                order.getTotalAmount(),
-                order.getStatus(),
-                order.getCreatedAt(),
-                recommendations
-        );
+    private OrderResponse mapToOrderResponse(Order order) {
+        return OrderResponseMapper.toResponse(order);
     }
 }
@@ -3,146 +3,263 @@ package com.ecomm.order.service;
 import com.ecomm.events.order.*;
 import com.ecomm.events.order.domain.Order;
 import com.ecomm.events.order.domain.OrderStatus;
+import com.ecomm.events.payment.PaymentCommandEvent;
+import com.ecomm.events.payment.PaymentResultEvent;
+import com.ecomm.events.payment.PaymentStatus;
 import com.ecomm.events.saga.SagaStatus;
 import com.ecomm.ordersaga.domain.OrderSagaEntity;
 import com.ecomm.ordersaga.domain.repository.OrderSagaRepository;
 import com.ecomm.order.repository.OrderRepository;
+import com.ecomm.order.saga.OrderSagaMapper;
+import com.ecomm.order.saga.OrderStatusUpdatedEvent;
+import com.ecomm.order.view.OrderViewProjector;
 import com.ecomm.saga.kafka.SagaKafkaTopics;
 import com.ecomm.saga.kafka.SagaMessageKeys;
+import com.ecomm.saga.kafka.reply.SagaReplyHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Slf4j
 @Service("orderSagaLibService") // <-- this matches your @Qualifier
 @RequiredArgsConstructor
-public class OrderSagaService {
+public class OrderSagaService implements SagaReplyHandler<Object> {
 
     private final OrderSagaRepository sagaRepository;
     private final KafkaTemplate<String, Object> sagaKafkaTemplate;
     private final OrderRepository orderRepository;
+    private final OrderViewProjector orderViewProjector;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final EnumSet<SagaStatus> TERMINAL =
+            EnumSet.of(SagaStatus.COMPLETED, SagaStatus.COMPENSATING, SagaStatus.FAILED);
+
+    // Past payment: the money is taken, so a failing step must not release stock or cancel
+    private static final EnumSet<OrderStatus> PAID_ORDER_STATUSES = EnumSet.of(
+            OrderStatus.CONFIRMED, OrderStatus.READY_TO_SHIP, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
 
     // =========================================================
     // START SAGA
     // =========================================================
-    @Transactional
-    public void startSaga(OrderSagaStartEvent event) {
-        // 1. Persist initial saga state
+
+    /**
+     * Saga row of a new order, written in the order's transaction so it exists before the start event
+     * leaves the outbox. Inventory consumes that event itself; there is no separate inventory command.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createSaga(String sagaId, Order order) {
         OrderSagaEntity saga = new OrderSagaEntity();
-        saga.setSagaId(event.sagaId());
-        saga.setOrderId(Long.valueOf(event.orderId()));
+        saga.setSagaId(sagaId);
+        saga.setOrderId(order.getId());
         saga.setStatus(SagaStatus.STARTED);
         saga.setInventoryDone(false);
         saga.setPaymentDone(false);
         saga.setShippingDone(false);
         sagaRepository.save(saga);
 
-        // 2. First step: send inventory command
-        InventoryCommand cmd = new InventoryCommand(
-                event.sagaId(),
-                event.orderId(),
-                event.items()
-        );
-
-        String key = SagaMessageKeys.commandKey(event.sagaId(), SagaStep.INVENTORY);
-
-        sagaKafkaTemplate.send(
-                SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY,
-                key,
-                cmd
-        );
-
-        log.info("SAGA [{}] started for order {}", event.sagaId(), event.orderId());
+        log.info("SAGA [{}] started for order {}", sagaId, order.getExternalOrderId());
     }
 
     // =========================================================
     // REPLY HANDLING – ORCHESTRATION + ORDER STATUS
     // =========================================================
 
+    // What the participants actually send: inventory an OrderSagaReply, payment a PaymentResultEvent
+    @Override
+    public Set<Class<?>> replyTypes() {
+        return Set.of(OrderSagaReply.class, PaymentResultEvent.class);
+    }
+
     /**
-     * Kafka listener for saga replies.
-     * Adjust the payload type (SagaReplyEvent / OrderSagaReply) to what you actually use.
+     * Saga replies of one poll (via SagaReplyDispatcher): one transaction, two IN-queries and one flush.
+     * Replies are keyed by saga ({@link SagaMessageKeys#replyKey}), so all replies of a saga sit on one
+     * partition and arrive here in order; they are applied in that order.
      */
-    @KafkaListener(
-            topics = SagaKafkaTopics.ORDER_SAGA_REPLIES,
-            groupId = "order-service-saga"
-    )
+    @Override
     @Transactional
-    public void onSagaReply(@Payload SagaReplyEvent reply) {
-        log.info("Order-service received saga reply: {}", reply);
+    public void handle(List<Object> replies) {
+        log.info("Order-service received {} saga replies", replies.size());
+        apply(replies.stream().map(OrderSagaService::toSagaReply).toList());
+    }
 
-        // 1) Update saga entity & send next commands
-        handleReply(reply);
+    // Each participant replies in its own shape; the orchestrator works on one
+    private static SagaReplyEvent toSagaReply(Object payload) {
+        if (payload instanceof PaymentResultEvent payment) {
+            // PENDING is cash on delivery: nothing to collect now, the order goes ahead
+            boolean paid = payment.getStatus() != PaymentStatus.FAILED;
+            return new SagaReplyEvent(payment.getSagaId(), payment.getOrderId(), SagaStep.PAYMENT, paid,
+                    paid ? SagaStatus.PAYMENT_AUTHORIZED : SagaStatus.FAILED, payment.getFailureReason());
+        }
+        OrderSagaReply reply = (OrderSagaReply) payload;
+        boolean ok = reply.status() != SagaStatus.FAILED && reply.status() != SagaStatus.COMPENSATING;
+        return new SagaReplyEvent(reply.sagaId(), reply.orderId(), reply.step(), ok, reply.status(),
+                reply.errorMessage());
+    }
 
-        // 2) Update Order aggregate status
-        Order order = orderRepository.findById(reply.orderId())
-                .orElseThrow(() -> new IllegalStateException(
-                        "Order not found for saga reply, id=" + reply.orderId()
-                ));
+    private void apply(List<SagaReplyEvent> replies) {
+        // 1) Load every saga and order of the batch at once
+        Map<String, OrderSagaEntity> sagas = new HashMap<>();
+        sagaRepository.findAllById(replies.stream().map(SagaReplyEvent::sagaId).filter(Objects::nonNull).distinct().toList())
+                .forEach(saga -> sagas.put(saga.getSagaId(), saga));
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findAllById(replies.stream().map(SagaReplyEvent::orderId).filter(Objects::nonNull).distinct().toList())
+                .forEach(order -> orders.put(order.getId(), order));
+
+        // 2) Apply in arrival order; a saga's replies come from one partition, so this is the saga's order
+        Set<Order> changed = new LinkedHashSet<>();
+        for (SagaReplyEvent reply : replies) {
+            OrderSagaEntity saga = sagas.get(reply.sagaId());
+            Order order = orders.get(reply.orderId());
+            if (saga == null || order == null) {
+                // Skipped rather than failing the whole batch on one bad reply
+                log.error("SAGA [{}] reply dropped: saga {} / order {} not found",
+                        reply.sagaId(), saga == null ? "missing" : "ok", reply.orderId());
+                continue;
+            }
+
+            // Update saga entity & send next commands; stale and duplicate replies change nothing
+            if (!handleReply(saga, order, reply)) {
+                continue;
+            }
+
+            // Update Order aggregate status
+            OrderStatus previous = order.getStatus();
+            applyStatusTransition(order, reply);
+            order.setUpdatedAt(Instant.now());
+            changed.add(order);
+            if (order.getStatus() != previous) {
+                eventPublisher.publishEvent(OrderStatusUpdatedEvent.of(reply.sagaId(), order, previous));
+            }
+        }
 
-        applyStatusTransition(order, reply);
-        order.setUpdatedAt(Instant.now());
-        orderRepository.save(order);
+        // 3) One flush for the batch (JDBC-batched updates)
+        sagaRepository.saveAll(sagas.values());
+        orderRepository.saveAll(changed);
+        changed.forEach(orderViewProjector::project);
     }
 
-    @Transactional
-    public void handleReply(SagaReplyEvent reply) {
-        OrderSagaEntity saga = sagaRepository.findById(reply.sagaId())
-                .orElseThrow(() -> new IllegalStateException("Saga not found: " + reply.sagaId()));
+    private boolean handleReply(OrderSagaEntity saga, Order order, SagaReplyEvent reply) {
+        if (TERMINAL.contains(saga.getStatus())) {
+            log.info("SAGA [{}] already {}, ignoring {} reply", saga.getSagaId(), saga.getStatus(), reply.step());
+            return false;
+        }
 
-        // Failure path → mark compensating
+        // Failure path → mark compensating, unless the customer has already paid
         if (!reply.success()) {
+            if (isPaid(saga, order)) {
+                // Releasing stock and cancelling would keep the money without shipping anything
+                saga.setLastError(reply.step() + " failed after payment: " + reply.errorMessage());
+                log.error("SAGA [{}] {} failed after order {} was paid ({}), needs refund or backorder: {}",
+                        saga.getSagaId(), reply.step(), order.getExternalOrderId(), order.getStatus(),
+                        reply.errorMessage());
+                return false;
+            }
             saga.setStatus(SagaStatus.COMPENSATING);
             saga.setLastError(reply.errorMessage());
-            sagaRepository.save(saga);
-            // TODO: send compensation commands (reverse inventory / refund payment)
+            if (saga.isInventoryDone()) {
+                sendInventoryRelease(saga, reply.errorMessage());
+            }
+            // TODO: refund payment once payment-service supports it
             log.warn("SAGA [{}] compensating due to error: {}",
                     reply.sagaId(), reply.errorMessage());
-            return;
+            return true;
+        }
+
+        // A success for a step that is not the awaited one is a redelivery or an answer to a resend
+        if (reply.step() != awaitedStep(saga.getStatus())) {
+            log.info("SAGA [{}] duplicate {} reply while {}, ignoring", saga.getSagaId(), reply.step(), saga.getStatus());
+            return false;
         }
 
-        // Success path per step
+        // Success path per step; the next step gets a fresh retry budget
+        saga.setRetryCount(0);
         switch (reply.step()) {
-            case INVENTORY -> handleInventorySuccess(saga, reply);
+            case INVENTORY -> handleInventorySuccess(saga, order);
             case PAYMENT   -> handlePaymentSuccess(saga, reply);
             case SHIPPING  -> handleShippingSuccess(saga, reply);
         }
+        return true;
     }
 
-    private void handleInventorySuccess(OrderSagaEntity saga, SagaReplyEvent reply) {
-        saga.setInventoryDone(true);
-        saga.setStatus(SagaStatus.INVENTORY_RESERVED);
-        sagaRepository.save(saga);
+    private static boolean isPaid(OrderSagaEntity saga, Order order) {
+        return saga.isPaymentDone() || PAID_ORDER_STATUSES.contains(order.getStatus());
+    }
 
-        // send payment command
-        PaymentCommand cmd = new PaymentCommand(
+    private void sendInventoryRelease(OrderSagaEntity saga, String reason) {
+        InventoryReleaseCommand cmd = new InventoryReleaseCommand(
                 saga.getSagaId(),
                 saga.getOrderId(),
-                null, // TODO: userId
-                null  // TODO: amount
+                reason
         );
 
-        String key = SagaMessageKeys.commandKey(saga.getSagaId(), SagaStep.PAYMENT);
+        String key = SagaMessageKeys.commandKey(saga.getSagaId(), SagaStep.INVENTORY);
 
         sagaKafkaTemplate.send(
-                SagaKafkaTopics.ORDER_SAGA_CMD_PAYMENT,
+                SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY_RELEASE,
                 key,
                 cmd
         );
+        log.info("SAGA [{}] compensation → INVENTORY release command sent", saga.getSagaId());
+    }
+
+    private void handleInventorySuccess(OrderSagaEntity saga, Order order) {
+        saga.setInventoryDone(true);
+        saga.setStatus(SagaStatus.INVENTORY_RESERVED);
+
+        sendPaymentCommand(saga.getSagaId(), order);
         log.info("SAGA [{}] INVENTORY done → PAYMENT command sent", saga.getSagaId());
     }
 
+    // What payment-service consumes: amount, payer and method come from the order
+    private void sendPaymentCommand(String sagaId, Order order) {
+        PaymentCommandEvent cmd = PaymentCommandEvent.builder()
+                .sagaId(sagaId)
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .amount(BigDecimal.valueOf(order.getTotalAmount()))
+                .currency("INR") // or order.getCurrency()
+                .method(order.getPaymentMethod())
+                .build();
+
+        String key = SagaMessageKeys.commandKey(sagaId, SagaStep.PAYMENT);
+
+        sagaKafkaTemplate.send(
+                SagaKafkaTopics.ORDER_SAGA_CMD_PAYMENT,
+                key,
+                cmd
+        );
+    }
+
     private void handlePaymentSuccess(OrderSagaEntity saga, SagaReplyEvent reply) {
         saga.setPaymentDone(true);
         saga.setStatus(SagaStatus.PAYMENT_AUTHORIZED);
-        sagaRepository.save(saga);
 
+        // paid → inventory holds must no longer expire
+        sagaKafkaTemplate.send(
+                SagaKafkaTopics.ORDER_SAGA_CMD_INVENTORY_CONFIRM,
+                SagaMessageKeys.commandKey(saga.getSagaId(), SagaStep.INVENTORY),
+                new InventoryConfirmCommand(saga.getSagaId(), saga.getOrderId())
+        );
+
+        sendShippingCommand(saga);
+        log.info("SAGA [{}] PAYMENT done → SHIPPING command sent", saga.getSagaId());
+    }
+
+    private void sendShippingCommand(OrderSagaEntity saga) {
         ShippingCommand cmd = new ShippingCommand(
                 saga.getSagaId(),
                 saga.getOrderId(),
@@ -156,19 +273,92 @@ public class OrderSagaService {
                 key,
                 cmd
         );
-        log.info("SAGA [{}] PAYMENT done → SHIPPING command sent", saga.getSagaId());
     }
 
     private void handleShippingSuccess(OrderSagaEntity saga, SagaReplyEvent reply) {
         saga.setShippingDone(true);
         saga.setStatus(SagaStatus.COMPLETED);
-        sagaRepository.save(saga);
         log.info("SAGA [{}] completed for order {}", saga.getSagaId(), saga.getOrderId());
 
         // Optionally: send a final result event back
         // sagaKafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_RESULT, ..., ...);
     }
 
+    // =========================================================
+    // TIMEOUTS (driven by SagaTimeoutScanner)
+    // =========================================================
+
+    /**
+     * The step a saga is waiting on never replied: resend its command, or after {@code maxRetries}
+     * resends, fail the step as if the participant had replied with an error (compensate + cancel order).
+     * Runs in the scanner's transaction, which holds the saga row lock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStepTimeout(OrderSagaEntity saga, int maxRetries) {
+        SagaStep step = pendingStep(saga.getStatus());
+        if (step == null) {
+            return;
+        }
+
+        Order order = orderRepository.findById(saga.getOrderId())
+                .orElseThrow(() -> new IllegalStateException("Order not found for saga " + saga.getSagaId()));
+
+        if (saga.getRetryCount() < maxRetries) {
+            saga.setRetryCount(saga.getRetryCount() + 1);
+            switch (step) {
+                case INVENTORY -> resendStart(saga, order);
+                case PAYMENT -> sendPaymentCommand(saga.getSagaId(), order);
+                case SHIPPING -> sendShippingCommand(saga);
+            }
+            log.warn("SAGA [{}] no {} reply, command resent (retry {}/{})",
+                    saga.getSagaId(), step, saga.getRetryCount(), maxRetries);
+            return;
+        }
+
+        if (isPaid(saga, order)) {
+            // Paid meanwhile (e.g. through another path): never compensate, just stop waiting
+            log.error("SAGA [{}] no {} reply after {} retries, but order {} is paid; not compensating",
+                    saga.getSagaId(), step, maxRetries, order.getExternalOrderId());
+            saga.setStatus(SagaStatus.PAYMENT_AUTHORIZED);
+            saga.setPaymentDone(true);
+            saga.setLastError(step + " step timed out after payment");
+            return;
+        }
+
+        log.error("SAGA [{}] no {} reply after {} retries, compensating", saga.getSagaId(), step, maxRetries);
+        apply(List.of(new SagaReplyEvent(saga.getSagaId(), saga.getOrderId(), step, false,
+                SagaStatus.FAILED, step + " step timed out")));
+    }
+
+    // Step whose reply a saga in this status is waiting for; null when it waits for nothing
+    private static SagaStep awaitedStep(SagaStatus status) {
+        return switch (status) {
+            case STARTED -> SagaStep.INVENTORY;
+            case INVENTORY_RESERVED -> SagaStep.PAYMENT;
+            case PAYMENT_AUTHORIZED -> SagaStep.SHIPPING;
+            default -> null;
+        };
+    }
+
+    /**
+     * Step the timeout engine resends; null when a saga in this status is never timed out.
+     * Shipping-service sends no reply yet, so a paid saga is never resent or compensated.
+     */
+    public static SagaStep pendingStep(SagaStatus status) {
+        SagaStep step = awaitedStep(status);
+        return step == SagaStep.SHIPPING ? null : step;
+    }
+
+    // Inventory consumes the start event itself (deduplicated by saga id), so that is what is resent;
+    // the orchestrator listener on the same topic ignores starts of sagas that already exist
+    private void resendStart(OrderSagaEntity saga, Order order) {
+        sagaKafkaTemplate.send(
+                SagaKafkaTopics.ORDER_SAGA_START,
+                SagaMessageKeys.commandKey(saga.getSagaId(), SagaStep.INVENTORY),
+                OrderSagaMapper.toStartEvent(saga.getSagaId(), order)
+        );
+    }
+
     // =========================================================
     // ORDER STATUS MAPPING
     // =========================================================
@@ -177,14 +367,9 @@ public class OrderSagaService {
         SagaStatus status = reply.status();
         SagaStep step = reply.step();
 
-        // happy path
-        if (status == SagaStatus.INVENTORY_RESERVED && step == SagaStep.INVENTORY) {
-            order.setStatus(OrderStatus.CONFIRMED);
-            return;
-        }
-
+        // happy path: stock held alone changes nothing, the order is confirmed once payment went through
         if (status == SagaStatus.PAYMENT_AUTHORIZED && step == SagaStep.PAYMENT) {
-            order.setStatus(OrderStatus.READY_TO_SHIP);
+            order.setStatus(OrderStatus.CONFIRMED);
             return;
         }
 
@@ -0,0 +1,74 @@
+package com.ecomm.order.stream;
+
+import com.ecomm.order.saga.OrderStatusUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans order status changes out to the SSE connections of the order's customer.
+ * <p>
+ * One multicast sink per connected customer; customers without an open connection cost nothing.
+ * Idle connections hold no thread, only a subscription and a heartbeat timer. Events are pushed
+ * after the status change commits, so a client never sees a status that was rolled back.
+ * A slow client misses events rather than holding up the others; it can re-read the order.
+ */
+@Slf4j
+@Component
+public class OrderStatusStream {
+
+    private final Map<String, CustomerSink> sinks = new ConcurrentHashMap<>();
+
+    // Connections are counted under the map's lock, so a sink is never dropped while one is opening
+    private static final class CustomerSink {
+        final Sinks.Many<OrderStatusUpdatedEvent> sink = Sinks.many().multicast().directBestEffort();
+        int connections;
+    }
+
+    // Keeps proxies and load balancers from closing idle connections
+    @Value("${order.stream.heartbeat:PT15S}")
+    private Duration heartbeat;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusUpdated(OrderStatusUpdatedEvent event) {
+        CustomerSink customer = sinks.get(event.customerId());
+        if (customer == null) {
+            return;
+        }
+        // Replies for the same customer can arrive on several listener threads at once
+        customer.sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    public Flux<ServerSentEvent<OrderStatusUpdatedEvent>> subscribe(String customerId) {
+        CustomerSink customer = sinks.compute(customerId, (id, existing) -> {
+            CustomerSink current = existing != null ? existing : new CustomerSink();
+            current.connections++;
+            return current;
+        });
+
+        Flux<ServerSentEvent<OrderStatusUpdatedEvent>> updates = customer.sink.asFlux()
+                .map(e -> ServerSentEvent.builder(e)
+                        .event("order-status")
+                        .id(e.orderId())
+                        .build());
+
+        Flux<ServerSentEvent<OrderStatusUpdatedEvent>> heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<OrderStatusUpdatedEvent>builder().comment("heartbeat").build());
+
+        return Flux.merge(updates, heartbeats)
+                .doFinally(signal -> release(customerId));
+    }
+
+    // Drops the sink once the customer's last connection is gone
+    private void release(String customerId) {
+        sinks.computeIfPresent(customerId, (id, customer) -> --customer.connections == 0 ? null : customer);
+    }
+}
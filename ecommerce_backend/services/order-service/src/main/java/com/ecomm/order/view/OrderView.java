@@ -0,0 +1,44 @@
+package com.ecomm.order.view;
+
+import com.ecomm.events.order.domain.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Read model of one order: the full {@code GET /orders/{id}} response as JSON, so status polls
+ * are a single primary-key read instead of the order row plus its items.
+ * Written by {@link OrderViewProjector} in the same transaction as every change to the order.
+ */
+@Entity
+@Table(name = "order_views",
+        indexes = @Index(name = "idx_order_views_order", columnList = "order_id", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderView {
+
+    @Id
+    @Column(name = "external_order_id", length = 64)
+    private String externalOrderId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OrderStatus status;
+
+    // OrderResponse as JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
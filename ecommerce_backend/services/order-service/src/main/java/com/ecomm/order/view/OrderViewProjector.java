@@ -0,0 +1,64 @@
+package com.ecomm.order.view;
+
+import com.ecomm.events.order.domain.Order;
+import com.ecomm.order.dto.OrderResponse;
+import com.ecomm.order.dto.OrderResponseMapper;
+import com.ecomm.order.repository.OrderViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Keeps {@link OrderView} in step with the orders table.
+ * Callers project inside their own transaction, so the view never shows a change that rolled back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderViewProjector {
+
+    private final OrderViewRepository viewRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void project(Order order) {
+        OrderResponse response = OrderResponseMapper.toResponse(order);
+        try {
+            viewRepository.save(OrderView.builder()
+                    .externalOrderId(order.getExternalOrderId())
+                    .orderId(order.getId())
+                    .customerId(response.customer().id())
+                    .status(order.getStatus())
+                    .payload(objectMapper.writeValueAsString(response))
+                    .updatedAt(order.getUpdatedAt() != null ? order.getUpdatedAt() : Instant.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order view for " + order.getExternalOrderId(), e);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Order order) {
+        viewRepository.deleteByOrderId(order.getId());
+    }
+
+    // Empty for orders not projected yet (placed before the read model existed)
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> find(String externalOrderId) {
+        return viewRepository.findById(externalOrderId).flatMap(view -> {
+            try {
+                return Optional.of(objectMapper.readValue(view.getPayload(), OrderResponse.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Unreadable order view for {}, using the orders table: {}", externalOrderId, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+}
@@ -1,11 +1,16 @@
 package com.ecomm.order.web;
 
 import com.ecomm.events.order.domain.OrderStatus;
+import com.ecomm.events.order.domain.RecommendedProductSummary;
 import com.ecomm.order.dto.CreateOrderRequest;
+import com.ecomm.order.dto.OrderPageResponse;
 import com.ecomm.order.dto.OrderResponse;
 import com.ecomm.order.dto.UpdateOrderRequest;
 import com.ecomm.order.dto.UpdateOrderStatusRequest;
+import com.ecomm.order.idempotency.OrderIdempotencyStore;
+import com.ecomm.order.saga.OrderStatusUpdatedEvent;
 import com.ecomm.order.service.OrderApplicationService;
+import com.ecomm.order.stream.OrderStatusStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,14 +18,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/orders")   // ✅ internal path; gateway will add /api and strip it
@@ -28,6 +37,8 @@ import java.util.List;
 public class OrderController {
 
     private final OrderApplicationService orderApplicationService;
+    private final OrderStatusStream orderStatusStream;
+    private final OrderIdempotencyStore orderIdempotencyStore;
 
     private static final EnumSet<OrderStatus> ALLOWED_STATUS_UPDATES =
             EnumSet.of(
@@ -44,22 +55,31 @@ public class OrderController {
     // -------------------------------------------------------------------------
     @Operation(
             summary = "Create an order",
-            description = "Creates an order for the authenticated USER and starts the order saga.",
+            description = "Creates an order for the authenticated USER and starts the order saga. Send an "
+                    + "Idempotency-Key header to make retries safe: a repeated key returns the first response "
+                    + "instead of creating another order.",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Order created",
                             content = @Content(schema = @Schema(implementation = OrderResponse.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid request"),
-                    @ApiResponse(responseCode = "401", description = "Unauthorized")
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "409", description = "Same Idempotency-Key still in progress"),
+                    @ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different request")
             }
     )
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize("hasRole('USER')")
-    public OrderResponse createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public OrderResponse createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                     @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
 
         String userId = getCurrentUserId(); // from JWT (subject)
 
-        return orderApplicationService.createOrder(userId, request);
+        if (idempotencyKey == null) {
+            return orderApplicationService.createOrder(userId, request);
+        }
+        return orderIdempotencyStore.execute(userId, idempotencyKey, request,
+                () -> orderApplicationService.createOrder(userId, request));
     }
 
     // -------------------------------------------------------------------------
@@ -77,16 +97,25 @@ public class OrderController {
         boolean isAdmin = isCurrentUserAdmin();
 
         OrderResponse response = orderApplicationService.getOrderById(externalOrderId);
+        checkOwner(response, currentUserId, isAdmin);
+        return response;
+    }
 
-        // Non-admin can only see their own order
-        if (!isAdmin && response.customer() != null) {
-            String ownerId = response.customer().id();
-            if (!currentUserId.equals(ownerId)) {
-                throw new AccessDeniedException("You cannot access another user's order.");
-            }
-        }
+    // -------------------------------------------------------------------------
+    // RECOMMENDATIONS FOR AN ORDER
+    // -------------------------------------------------------------------------
+    @Operation(
+            summary = "Product recommendations for an order",
+            description = "Products related to the order's first item, from product-service. Empty when "
+                    + "product-service does not answer within order.recommendations.timeout."
+    )
+    @GetMapping("/{externalOrderId}/recommendations")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public CompletableFuture<List<RecommendedProductSummary>> getRecommendations(@PathVariable String externalOrderId) {
 
-        return response;
+        OrderResponse order = orderApplicationService.getOrderById(externalOrderId);
+        checkOwner(order, getCurrentUserId(), isCurrentUserAdmin());
+        return orderApplicationService.getRecommendations(order);
     }
 
     // -------------------------------------------------------------------------
@@ -94,25 +123,51 @@ public class OrderController {
     // -------------------------------------------------------------------------
     @Operation(
             summary = "List orders",
-            description = "ADMIN can filter by customer and status; USER only sees their own orders."
+            description = "Newest first, one page at a time. ADMIN can filter by customer and status; USER only sees "
+                    + "their own orders. Pass nextCursor from the previous response as cursor to get the next page; "
+                    + "limit is capped by order.listing.max-page-size. view=summary returns one row per order "
+                    + "with an item count instead of the line items."
     )
     @GetMapping
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public List<OrderResponse> listOrders(
+    public OrderPageResponse<?> listOrders(
             @RequestParam(name = "customerId", required = false) String customerIdFilter,
-            @RequestParam(name = "status", required = false) OrderStatus statusFilter) {
+            @RequestParam(name = "status", required = false) OrderStatus statusFilter,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "view", defaultValue = "full") String view) {
 
         String currentUserId = getCurrentUserId();
         boolean isAdmin = isCurrentUserAdmin();
 
+        if ("summary".equalsIgnoreCase(view)) {
+            return orderApplicationService.getOrderSummaries(
+                    currentUserId, isAdmin, customerIdFilter, statusFilter, cursor, limit);
+        }
         return orderApplicationService.getOrders(
                 currentUserId,
                 isAdmin,
                 customerIdFilter,
-                statusFilter
+                statusFilter,
+                cursor,
+                limit
         );
     }
 
+    // -------------------------------------------------------------------------
+    // STATUS STREAM (SSE)
+    // -------------------------------------------------------------------------
+    @Operation(
+            summary = "Stream order status changes",
+            description = "Server-sent events with every status change of the caller's orders, pushed once the "
+                    + "change is committed. Replaces polling GET /orders/{externalOrderId} while the saga runs."
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public Flux<ServerSentEvent<OrderStatusUpdatedEvent>> streamStatus() {
+        return orderStatusStream.subscribe(getCurrentUserId());
+    }
+
     // -------------------------------------------------------------------------
     // UPDATE ORDER (items / address, etc.)
     // -------------------------------------------------------------------------
@@ -180,6 +235,13 @@ public class OrderController {
         return auth.getName();
     }
 
+    // Non-admin can only see their own order
+    private static void checkOwner(OrderResponse order, String currentUserId, boolean isAdmin) {
+        if (!isAdmin && order.customer() != null && !currentUserId.equals(order.customer().id())) {
+            throw new AccessDeniedException("You cannot access another user's order.");
+        }
+    }
+
     private boolean isCurrentUserAdmin() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null) return false;
@@ -32,6 +32,10 @@ public class Payment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Set for saga payments; unique, so a redelivered or resent command never charges twice
+    @Column(length = 100, unique = true)
+    private String sagaId;
+
     private Long orderId;
     private Long userId;
 
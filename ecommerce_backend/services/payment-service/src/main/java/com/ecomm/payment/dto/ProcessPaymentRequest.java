@@ -10,6 +10,9 @@ import java.math.BigDecimal;
 @Builder
 public class ProcessPaymentRequest {
 
+    // Idempotency key for saga payments (null for direct API calls)
+    private String sagaId;
+
     private Long orderId;
     private Long userId;
     private BigDecimal amount;
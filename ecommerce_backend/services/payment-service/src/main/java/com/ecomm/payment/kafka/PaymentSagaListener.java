@@ -7,7 +7,9 @@ import com.ecomm.payment.domain.Payment;
 import com.ecomm.payment.dto.ProcessPaymentRequest;
 import com.ecomm.payment.service.PaymentService;
 import com.ecomm.saga.kafka.SagaKafkaTopics;
+import com.ecomm.saga.kafka.SagaMessageKeys;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -30,6 +32,7 @@ public class PaymentSagaListener {
 
         try {
             ProcessPaymentRequest req = ProcessPaymentRequest.builder()
+                    .sagaId(event.getSagaId())
                     .orderId(event.getOrderId())
                     .userId(event.getUserId())
                     .amount(event.getAmount())
@@ -40,7 +43,13 @@ public class PaymentSagaListener {
                     .walletProvider(event.getWalletProvider())
                     .build();
 
-            Payment payment = paymentService.processPayment(req);
+            Payment payment;
+            try {
+                payment = paymentService.processPayment(req);
+            } catch (DataIntegrityViolationException duplicate) {
+                // A concurrent delivery of the same saga recorded the payment first; its outcome is the answer
+                payment = paymentService.findBySagaId(event.getSagaId()).orElseThrow(() -> duplicate);
+            }
 
             PaymentResultEvent result = PaymentResultEvent.builder()
                     .sagaId(event.getSagaId())
@@ -54,7 +63,7 @@ public class PaymentSagaListener {
                     .failureReason(payment.getFailureReason())
                     .build();
 
-            kafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_REPLIES, result.getSagaId(), result);
+            kafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_REPLIES, SagaMessageKeys.replyKey(result.getSagaId()), result);
             log.info("Sent PaymentResultEvent: {}", result);
 
         } catch (Exception ex) {
@@ -71,7 +80,7 @@ public class PaymentSagaListener {
                     .failureReason(ex.getMessage())
                     .build();
 
-            kafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_REPLIES, result.getSagaId(), result);
+            kafkaTemplate.send(SagaKafkaTopics.ORDER_SAGA_REPLIES, SagaMessageKeys.replyKey(result.getSagaId()), result);
         }
     }
 }
@@ -3,9 +3,13 @@ package com.ecomm.payment.service;
 import com.ecomm.payment.domain.Payment;
 import com.ecomm.payment.dto.ProcessPaymentRequest;
 
+import java.util.Optional;
+
 public interface PaymentService {
 
     Payment processPayment(ProcessPaymentRequest request);
 
     Payment getByOrderId(Long orderId);
+
+    Optional<Payment> findBySagaId(String sagaId);
 }
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -25,7 +26,18 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     public Payment processPayment(ProcessPaymentRequest req) {
 
+        // Same saga again (redelivery, timeout resend): answer with the recorded payment, charge nothing
+        if (req.getSagaId() != null) {
+            Optional<Payment> existing = paymentRepository.findBySagaId(req.getSagaId());
+            if (existing.isPresent()) {
+                log.info("Payment for saga {} already processed ({}), not charging again",
+                        req.getSagaId(), existing.get().getStatus());
+                return existing.get();
+            }
+        }
+
         Payment payment = Payment.builder()
+                .sagaId(req.getSagaId())
                 .orderId(req.getOrderId())
                 .userId(req.getUserId())
                 .amount(req.getAmount())
@@ -36,7 +48,8 @@ public class PaymentServiceImpl implements PaymentService {
                 .updatedAt(Instant.now())
                 .build();
 
-        payment = paymentRepository.save(payment);
+        // Flushed now: a concurrent delivery of the same saga fails here, before anything is charged
+        payment = paymentRepository.saveAndFlush(payment);
 
         try {
             switch (req.getMethod()) {
@@ -56,6 +69,12 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentRepository.save(payment);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Payment> findBySagaId(String sagaId) {
+        return paymentRepository.findBySagaId(sagaId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Payment getByOrderId(Long orderId) {
@@ -83,7 +83,9 @@ public class ProductController {
 
     @Operation(
             summary = "Search products",
-            description = "Search by keyword, category, price range and status with pagination."
+            description = "Search by keyword, category, price range and status with pagination. "
+                    + "By default products in stock are listed first, with all filters combined and live stock from "
+                    + "inventory-service applied. inStockFirst=false without inStock keeps the plain catalog order."
     )
     @GetMapping
     public PageResponse<ProductResponse> search(
@@ -97,6 +99,10 @@ public class ProductController {
             @RequestParam(required = false) Double maxPrice,
             @Parameter(description = "Filter by product status")
             @RequestParam(required = false) ProductStatus status,
+            @Parameter(description = "true: only products in stock, false: only sold-out products")
+            @RequestParam(required = false) Boolean inStock,
+            @Parameter(description = "List products in stock before sold-out ones (default)")
+            @RequestParam(defaultValue = "true") boolean inStockFirst,
             @Parameter(description = "Page number (0-based)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size")
@@ -109,7 +115,7 @@ public class ProductController {
                 (parts.length > 1 && "asc".equalsIgnoreCase(parts[1]))
                         ? Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, parts[0]));
-        return productService.search(keyword, category, minPrice, maxPrice, status, pageable);
+        return productService.search(keyword, category, minPrice, maxPrice, status, inStock, inStockFirst, pageable);
     }
 
     @Operation(summary = "Delete product")
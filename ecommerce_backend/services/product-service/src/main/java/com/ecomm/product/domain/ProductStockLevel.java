@@ -0,0 +1,39 @@
+package com.ecomm.product.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Local copy of inventory-service's stock level per SKU, folded from inventory.stock.levels.v1.
+ * Search reads it instead of calling inventory-service per result; {@link Product#getStockQuantity()}
+ * stays the seller-entered catalog value.
+ */
+@Entity
+@Table(name = "product_stock_levels")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockLevel {
+
+    @Id
+    @Column(length = 100)
+    private String sku;
+
+    @Column(nullable = false)
+    private Long available;
+
+    @Column(nullable = false)
+    private Long reserved;
+
+    // Source timestamp of the level, used to drop out-of-order events
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public boolean isInStock() {
+        return available > 0;
+    }
+}
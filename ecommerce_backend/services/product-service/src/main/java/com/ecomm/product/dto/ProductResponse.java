@@ -16,6 +16,9 @@ public class ProductResponse {
     private String description;
     private Double price;
     private Integer stockQuantity;
+    // Live level from inventory-service; null until the projection has seen the SKU
+    private Long availableQuantity;
+    private Boolean inStock;
     private String category;
     private String brand;
     private ProductStatus status;
@@ -0,0 +1,39 @@
+package com.ecomm.product.kafka;
+
+import com.ecomm.events.inventory.InventoryStockLevelEvent;
+import com.ecomm.product.repository.ProductStockLevelRepository;
+import com.ecomm.saga.kafka.SagaKafkaTopics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Folds inventory-service's compacted stock-level topic into product_stock_levels.
+ * Reads from the beginning on a new group, so an empty projection is rebuilt from the topic.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockLevelConsumer {
+
+    private final ProductStockLevelRepository stockLevelRepository;
+
+    @KafkaListener(
+            topics = SagaKafkaTopics.INVENTORY_STOCK_LEVELS,
+            groupId = "product-service-stock-levels",
+            properties = "auto.offset.reset=earliest"
+    )
+    @Transactional
+    public void onStockLevel(@Payload InventoryStockLevelEvent event) {
+        int updated = stockLevelRepository.upsert(event.sku(), event.available(), event.reserved(),
+                Instant.ofEpochMilli(event.updatedAt()));
+        if (updated == 0) {
+            log.debug("Ignored stale stock level for sku {}", event.sku());
+        }
+    }
+}
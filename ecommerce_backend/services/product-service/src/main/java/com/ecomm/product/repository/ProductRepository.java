@@ -5,12 +5,30 @@ import com.ecomm.product.domain.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Stock-aware search: live level from the inventory projection, catalog quantity until one arrives
+    String IN_STOCK = "coalesce(s.available, p.stockQuantity) > 0";
+
+    String STOCK_SEARCH = """
+            from Product p
+            left join ProductStockLevel s on s.sku = p.sku
+            where (:category is null or lower(p.category) = lower(:category))
+              and (:keyword is null or lower(p.name) like :keyword)
+              and (:minPrice is null or p.price >= :minPrice)
+              and (:maxPrice is null or p.price <= :maxPrice)
+              and (:status is null or p.status = :status)
+              and (:inStock is null
+                   or (:inStock = true and coalesce(s.available, p.stockQuantity) > 0)
+                   or (:inStock = false and coalesce(s.available, p.stockQuantity) <= 0))
+            """;
+
     Optional<Product> findBySku(String sku);
 
     Page<Product> findByStatus(ProductStatus status, Pageable pageable);
@@ -29,4 +47,25 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     // ✅ Single, clean version – RecommendationServiceImpl uses this
     Page<Product> findByStatusOrderByCreatedAtDesc(ProductStatus status, Pageable pageable);
+
+    // keyword is a lower-case LIKE pattern; inStock null means no stock filter
+    @Query(value = "select p " + STOCK_SEARCH, countQuery = "select count(p) " + STOCK_SEARCH)
+    Page<Product> searchByStock(@Param("keyword") String keyword,
+                                @Param("category") String category,
+                                @Param("minPrice") Double minPrice,
+                                @Param("maxPrice") Double maxPrice,
+                                @Param("status") ProductStatus status,
+                                @Param("inStock") Boolean inStock,
+                                Pageable pageable);
+
+    // Same, with in-stock products ahead of the requested sort
+    @Query(value = "select p " + STOCK_SEARCH + " order by case when " + IN_STOCK + " then 0 else 1 end",
+            countQuery = "select count(p) " + STOCK_SEARCH)
+    Page<Product> searchInStockFirst(@Param("keyword") String keyword,
+                                     @Param("category") String category,
+                                     @Param("minPrice") Double minPrice,
+                                     @Param("maxPrice") Double maxPrice,
+                                     @Param("status") ProductStatus status,
+                                     @Param("inStock") Boolean inStock,
+                                     Pageable pageable);
 }
@@ -0,0 +1,28 @@
+package com.ecomm.product.repository;
+
+import com.ecomm.product.domain.ProductStockLevel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface ProductStockLevelRepository extends JpaRepository<ProductStockLevel, String> {
+
+    // Insert or move forward; an older level (redelivery, republish racing a live update) is ignored
+    @Modifying
+    @Query(value = """
+            insert into product_stock_levels (sku, available, reserved, updated_at)
+            values (:sku, :available, :reserved, :updatedAt)
+            on conflict (sku) do update
+               set available  = excluded.available,
+                   reserved   = excluded.reserved,
+                   updated_at = excluded.updated_at
+             where product_stock_levels.updated_at <= excluded.updated_at
+            """, nativeQuery = true)
+    int upsert(@Param("sku") String sku,
+               @Param("available") long available,
+               @Param("reserved") long reserved,
+               @Param("updatedAt") Instant updatedAt);
+}
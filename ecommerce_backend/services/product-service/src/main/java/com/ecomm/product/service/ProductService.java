@@ -26,6 +26,8 @@ public interface ProductService {
             Double minPrice,
             Double maxPrice,
             ProductStatus status,
+            Boolean inStock,
+            boolean inStockFirst,
             Pageable pageable
     );
 }
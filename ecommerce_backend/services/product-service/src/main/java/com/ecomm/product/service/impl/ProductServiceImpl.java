@@ -3,10 +3,12 @@ package com.ecomm.product.service.impl;
 import com.ecomm.events.product.ProductStatus;
 import com.ecomm.product.ai.ImageGenerationClient;
 import com.ecomm.product.domain.Product;
+import com.ecomm.product.domain.ProductStockLevel;
 import com.ecomm.product.dto.PageResponse;
 import com.ecomm.product.dto.ProductRequest;
 import com.ecomm.product.dto.ProductResponse;
 import com.ecomm.product.repository.ProductRepository;
+import com.ecomm.product.repository.ProductStockLevelRepository;
 import com.ecomm.product.service.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +16,9 @@ import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +26,7 @@ import java.util.function.Function;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductStockLevelRepository stockLevelRepository;
     private final ImageGenerationClient imageGenerationClient;
 
     @Override
@@ -93,7 +98,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public ProductResponse getById(Long id) {
-        return toResponse(getEntity(id));
+        return withStockLevel(getEntity(id));
     }
 
     @Override
@@ -101,7 +106,7 @@ public class ProductServiceImpl implements ProductService {
     public ProductResponse getBySku(String sku) {
         Product product = productRepository.findBySku(sku)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with sku: " + sku));
-        return toResponse(product);
+        return withStockLevel(product);
     }
 
     @Override
@@ -126,8 +131,15 @@ public class ProductServiceImpl implements ProductService {
             Double minPrice,
             Double maxPrice,
             ProductStatus status,
+            Boolean inStock,
+            boolean inStockFirst,
             Pageable pageable
     ) {
+        // In-stock-first is the default ranking; the catalog-only queries are left for explicit opt-outs
+        if (inStock != null || inStockFirst) {
+            return stockAwareSearch(keyword, category, minPrice, maxPrice, status, inStock, inStockFirst, pageable);
+        }
+
         Page<Product> page;
 
         if (category != null && !category.isBlank()) {
@@ -149,12 +161,46 @@ public class ProductServiceImpl implements ProductService {
         return toPageResponse(page, this::toResponse);
     }
 
+    // All filters combined in one query, stock taken from the inventory projection
+    private PageResponse<ProductResponse> stockAwareSearch(
+            String keyword,
+            String category,
+            Double minPrice,
+            Double maxPrice,
+            ProductStatus status,
+            Boolean inStock,
+            boolean inStockFirst,
+            Pageable pageable
+    ) {
+        String pattern = (keyword == null || keyword.isBlank()) ? null : "%" + keyword.trim().toLowerCase() + "%";
+        String categoryFilter = (category == null || category.isBlank()) ? null : category;
+
+        Page<Product> page = inStockFirst
+                ? productRepository.searchInStockFirst(pattern, categoryFilter, minPrice, maxPrice, status, inStock, pageable)
+                : productRepository.searchByStock(pattern, categoryFilter, minPrice, maxPrice, status, inStock, pageable);
+
+        // One lookup for the whole page
+        Map<String, ProductStockLevel> levels = stockLevelRepository
+                .findAllById(page.getContent().stream().map(Product::getSku).toList()).stream()
+                .collect(Collectors.toMap(ProductStockLevel::getSku, Function.identity()));
+
+        return toPageResponse(page, product -> toResponse(product, levels.get(product.getSku())));
+    }
+
     private Product getEntity(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
     }
 
+    private ProductResponse withStockLevel(Product entity) {
+        return toResponse(entity, stockLevelRepository.findById(entity.getSku()).orElse(null));
+    }
+
     private ProductResponse toResponse(Product entity) {
+        return toResponse(entity, null);
+    }
+
+    private ProductResponse toResponse(Product entity, ProductStockLevel level) {
         return ProductResponse.builder()
                 .id(entity.getId())
                 .sku(entity.getSku())
@@ -162,6 +208,8 @@ public class ProductServiceImpl implements ProductService {
                 .description(entity.getDescription())
                 .price(entity.getPrice())
                 .stockQuantity(entity.getStockQuantity())
+                .availableQuantity(level == null ? null : level.getAvailable())
+                .inStock(level == null ? null : level.isInStock())
                 .category(entity.getCategory())
                 .brand(entity.getBrand())
                 .status(entity.getStatus())